@@ -0,0 +1,349 @@
+package bench;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import java.io.Writer;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Gateway from the benchmarks to the classes of the program. The program lives in the default package, which can't be
+ * imported from a named package, and JMH requires benchmarks to be in a named package. Every method of the program used
+ * by the benchmarks is therefore looked up once as a {@link MethodHandle}, held in a static final field, which the JIT
+ * compiler treats as a constant and inlines like a direct call. Instances of the program's classes are passed around
+ * as {@code Object}.
+ */
+final class App {
+    private static final MethodHandle NEW_CONTENT = constructor("Content", String.class, String.class,
+            String[].class, String[].class, LocalDate.class, String.class, String.class, String.class);
+    private static final MethodHandle MERGE_REGIONS = virtual("Content", "mergeRegions", "Content", "Content");
+    private static final MethodHandle GET_GENRES = virtual("Content", "getGenres", String.class);
+    private static final MethodHandle GET_TOP_CAST = virtual("Content", "getTopCast", String.class);
+    private static final MethodHandle GET_RELEASE_DATE = virtual("Content", "getReleaseDate", String.class);
+    private static final MethodHandle GET_REGIONAL_RELEASE_DATES = virtual("Content", "getRegionalReleaseDates",
+            String.class);
+    private static final MethodHandle GET_MAIN_ATTRIBUTES = virtual("Content", "getMainAttributes", String.class);
+    private static final MethodHandle NEW_EXTRACTOR = constructor("ContentExtractor", String.class, String.class);
+    private static final MethodHandle SELECT_ARTICLES = virtual("ContentExtractor", "selectArticles", Elements.class,
+            Document.class);
+    private static final MethodHandle EXTRACT_ARTICLE = virtual("ContentExtractor", "extractArticle", List.class,
+            Element.class);
+    private static final MethodHandle BUILD_GENRE_INDEX = staticMethod("GenreIndex", "build", "GenreIndex", List.class);
+    private static final MethodHandle QUERY = virtual("GenreIndex", "query", BitSet.class, Collection.class,
+            Collection.class, Collection.class);
+    private static final MethodHandle SELECT = virtual("GenreIndex", "select", List.class, BitSet.class);
+    private static final MethodHandle BUILD_SEARCH_INDEX = staticMethod("SearchIndex", "build", "SearchIndex",
+            "GenreIndex");
+    private static final MethodHandle SEARCH = virtual("SearchIndex", "search", BitSet.class, String.class);
+    private static final MethodHandle NEW_CATALOG = constructor("Catalog");
+    private static final MethodHandle MAP_MOVIES = virtual("Catalog", "mapMovies", "CatalogSnapshot", List.class);
+    private static final MethodHandle NEW_CATALOG_WRITER = constructor("CatalogWriter", Writer.class);
+    private static final MethodHandle WRITE_TSV = virtual("CatalogWriter", "writeTsv", void.class, List.class);
+
+    private App() {
+    }
+
+    /**
+     * Creates a Content scraped in a single region.
+     * @return Returns the Content.
+     */
+    static Object newContent(String posterUrl, String title, String[] genres, String[] topCast, LocalDate releaseDate,
+                             String type, String imdbUrl, String region) {
+        try {
+            return NEW_CONTENT.invokeExact(posterUrl, title, genres, topCast, releaseDate, type, imdbUrl, region);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Calls {@code Content.mergeRegions}.
+     */
+    static Object mergeRegions(Object content, Object other) {
+        try {
+            return MERGE_REGIONS.invokeExact(content, other);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Calls {@code Content.getGenres}.
+     */
+    static String getGenres(Object content) {
+        try {
+            return (String) GET_GENRES.invokeExact(content);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Calls {@code Content.getTopCast}.
+     */
+    static String getTopCast(Object content) {
+        try {
+            return (String) GET_TOP_CAST.invokeExact(content);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Calls {@code Content.getReleaseDate}.
+     */
+    static String getReleaseDate(Object content) {
+        try {
+            return (String) GET_RELEASE_DATE.invokeExact(content);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Calls {@code Content.getRegionalReleaseDates}.
+     */
+    static String getRegionalReleaseDates(Object content) {
+        try {
+            return (String) GET_REGIONAL_RELEASE_DATES.invokeExact(content);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Calls {@code Content.getMainAttributes}.
+     */
+    static String getMainAttributes(Object content) {
+        try {
+            return (String) GET_MAIN_ATTRIBUTES.invokeExact(content);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Creates a {@code ContentExtractor}.
+     */
+    static Object newExtractor(String contentType, String region) {
+        try {
+            return NEW_EXTRACTOR.invokeExact(contentType, region);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Calls {@code ContentExtractor.selectArticles}.
+     */
+    static Elements selectArticles(Object extractor, Document document) {
+        try {
+            return (Elements) SELECT_ARTICLES.invokeExact(extractor, document);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Calls {@code ContentExtractor.extractArticle}.
+     */
+    static List<?> extractArticle(Object extractor, Element article) {
+        try {
+            return (List<?>) EXTRACT_ARTICLE.invokeExact(extractor, article);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Calls {@code GenreIndex.build}.
+     */
+    static Object buildGenreIndex(List<?> data) {
+        try {
+            return BUILD_GENRE_INDEX.invokeExact(data);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Calls {@code GenreIndex.query}.
+     */
+    static BitSet query(Object genreIndex, Collection<String> allOf, Collection<String> anyOf,
+                        Collection<String> noneOf) {
+        try {
+            return (BitSet) QUERY.invokeExact(genreIndex, allOf, anyOf, noneOf);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Calls {@code GenreIndex.select}.
+     */
+    static List<?> select(Object genreIndex, BitSet positions) {
+        try {
+            return (List<?>) SELECT.invokeExact(genreIndex, positions);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Calls {@code SearchIndex.build}.
+     */
+    static Object buildSearchIndex(Object genreIndex) {
+        try {
+            return BUILD_SEARCH_INDEX.invokeExact(genreIndex);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Calls {@code SearchIndex.search}.
+     */
+    static BitSet search(Object searchIndex, String query) {
+        try {
+            return (BitSet) SEARCH.invokeExact(searchIndex, query);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Creates a {@code Catalog}.
+     */
+    static Object newCatalog() {
+        try {
+            return NEW_CATALOG.invokeExact();
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Calls {@code Catalog.mapMovies}, which is what the genre mapping task of the GUI runs.
+     */
+    static Object mapMovies(Object catalog, List<?> data) {
+        try {
+            return MAP_MOVIES.invokeExact(catalog, data);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Creates a {@code CatalogWriter} and calls {@code writeTsv}.
+     */
+    static void writeTsv(Writer out, List<?> data) {
+        try {
+            Object writer = NEW_CATALOG_WRITER.invokeExact(out);
+            WRITE_TSV.invokeExact(writer, data);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    /**
+     * Looks up a constructor, with its parameters and result erased to {@code Object} where they are program classes.
+     */
+    private static MethodHandle constructor(String className, Object... parameterTypes) {
+        try {
+            Class<?> type = Class.forName(className);
+            MethodHandle handle = MethodHandles.publicLookup().findConstructor(type,
+                    MethodType.methodType(void.class, classes(parameterTypes)));
+            return handle.asType(erase(handle.type()));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Looks up an instance method, with the receiver, parameters and result erased to {@code Object} where they are
+     * program classes.
+     */
+    private static MethodHandle virtual(String className, String name, Object returnType, Object... parameterTypes) {
+        try {
+            MethodHandle handle = MethodHandles.publicLookup().findVirtual(Class.forName(className), name,
+                    MethodType.methodType(toClass(returnType), classes(parameterTypes)));
+            return handle.asType(erase(handle.type()));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Looks up a static method, with the parameters and result erased to {@code Object} where they are program classes.
+     */
+    private static MethodHandle staticMethod(String className, String name, Object returnType,
+                                             Object... parameterTypes) {
+        try {
+            MethodHandle handle = MethodHandles.publicLookup().findStatic(Class.forName(className), name,
+                    MethodType.methodType(toClass(returnType), classes(parameterTypes)));
+            return handle.asType(erase(handle.type()));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Turns types given as classes or as names of program classes into classes.
+     */
+    private static Class<?>[] classes(Object[] types) throws ClassNotFoundException {
+        Class<?>[] classes = new Class<?>[types.length];
+        for (int i = 0; i < types.length; i++) {
+            classes[i] = toClass(types[i]);
+        }
+        return classes;
+    }
+
+    /**
+     * Turns a type given as a class or as the name of a program class into a class.
+     */
+    private static Class<?> toClass(Object type) throws ClassNotFoundException {
+        return type instanceof Class<?> c ? c : Class.forName((String) type);
+    }
+
+    /**
+     * Replaces every program class of a method type with {@code Object}.
+     */
+    private static MethodType erase(MethodType type) {
+        MethodType erased = type;
+        for (int i = 0; i < type.parameterCount(); i++) {
+            if (isProgramClass(type.parameterType(i))) {
+                erased = erased.changeParameterType(i, Object.class);
+            }
+        }
+        if (isProgramClass(type.returnType())) {
+            erased = erased.changeReturnType(Object.class);
+        }
+        return erased;
+    }
+
+    /**
+     * Checks whether a class belongs to the program, which is in the default package.
+     */
+    private static boolean isProgramClass(Class<?> type) {
+        return !type.isPrimitive() && !type.isArray() && type.getPackageName().isEmpty();
+    }
+
+    /**
+     * Rethrows anything thrown by the program unchanged if it is unchecked, and wrapped otherwise.
+     */
+    private static RuntimeException rethrow(Throwable t) {
+        if (t instanceof RuntimeException e) {
+            throw e;
+        }
+        if (t instanceof Error e) {
+            throw e;
+        }
+        throw new IllegalStateException(t);
+    }
+}
@@ -0,0 +1,29 @@
+package bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler, which adds the allocation rate and the bytes allocated per operation to
+ * the throughput and latency percentiles of every benchmark. The results are also written to bench-results.json.
+ */
+public class BenchmarkRunner {
+    /**
+     * Main method that runs the benchmarks.
+     * @param args Optional regular expression of the benchmarks to run, for example "FilterBenchmark", all by default.
+     * @throws RunnerException If the benchmarks couldn't be run.
+     */
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(args.length > 0 ? args[0] : "bench\\..*Benchmark")
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result("bench-results.json")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,118 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks filtering a mapped catalog the way the table of the GUI is filtered ({@code displayFiltered}, formerly
+ * {@code displayByGenre}): a genre query in each match mode, a search of the titles and cast, and both combined and
+ * turned into the list shown in the table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class FilterBenchmark {
+    private static final List<String> FILTER_GENRES = List.of("Comedy", "Drama");
+
+    /**
+     * Number of titles of the catalog.
+     */
+    @Param({"10000", "100000"})
+    public int size;
+
+    private Object genreIndex;
+    private Object searchIndex;
+    private String[] queries;
+    private int nextQuery;
+
+    /**
+     * Generates and maps the catalog, and picks the search queries.
+     */
+    @Setup
+    public void setUp() {
+        genreIndex = App.buildGenreIndex(Fixtures.catalog(size));
+        searchIndex = App.buildSearchIndex(genreIndex);
+        queries = Fixtures.searchQueries(64);
+    }
+
+    /**
+     * Getter for the next search query, so a benchmark doesn't repeat a single query.
+     * @return Returns the query.
+     */
+    private String nextQuery() {
+        String query = queries[nextQuery];
+        nextQuery = (nextQuery + 1) % queries.length;
+        return query;
+    }
+
+    /**
+     * Selects titles of any of the filter genres.
+     * @return Returns the selected positions.
+     */
+    @Benchmark
+    public BitSet matchAny() {
+        return App.query(genreIndex, List.of(), FILTER_GENRES, List.of());
+    }
+
+    /**
+     * Selects titles of all of the filter genres.
+     * @return Returns the selected positions.
+     */
+    @Benchmark
+    public BitSet matchAll() {
+        return App.query(genreIndex, FILTER_GENRES, List.of(), List.of());
+    }
+
+    /**
+     * Selects titles of none of the filter genres.
+     * @return Returns the selected positions.
+     */
+    @Benchmark
+    public BitSet matchNone() {
+        return App.query(genreIndex, List.of(), List.of(), FILTER_GENRES);
+    }
+
+    /**
+     * Searches the titles and cast.
+     * @return Returns the matching positions.
+     */
+    @Benchmark
+    public BitSet search() {
+        return App.search(searchIndex, nextQuery());
+    }
+
+    /**
+     * Filters by genre and search together and selects the titles shown in the table, like the GUI does.
+     * @return Returns the titles.
+     */
+    @Benchmark
+    public List<?> filterAndSelect() {
+        BitSet positions = App.query(genreIndex, List.of(), FILTER_GENRES, List.of());
+        positions.and(App.search(searchIndex, nextQuery()));
+        return App.select(genreIndex, positions);
+    }
+
+    /**
+     * Selects every title, as shown in the table when the filter is turned off.
+     * @return Returns the titles.
+     */
+    @Benchmark
+    public List<?> selectAll() {
+        return App.select(genreIndex, App.query(genreIndex, List.of(), List.of(), List.of()));
+    }
+}
@@ -0,0 +1,194 @@
+package bench;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * Builds the data the benchmarks run against, without any network access. Calendar pages are generated with the same
+ * structure as the IMDB release calendar, as matched by {@code ScrapeSelector}, or read from a page saved from IMDB
+ * when the system property "bench.calendar" is set to its path. Catalogs are generated with genres, top cast and
+ * release dates spread like those of a scraped calendar. Everything is generated from a fixed seed, so every run of a
+ * benchmark works on the same data.
+ */
+final class Fixtures {
+    private static final long SEED = 20231016L;
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MMM dd, yyyy",
+            Locale.ENGLISH);
+    private static final String LIST_CLASSES = "ipc-inline-list ipc-inline-list--show-dividers "
+            + "ipc-inline-list--no-wrap ipc-inline-list--inline";
+    private static final String[] GENRES = {"Action", "Adventure", "Animation", "Biography", "Comedy", "Crime",
+            "Documentary", "Drama", "Family", "Fantasy", "History", "Horror", "Music", "Musical", "Mystery", "Romance",
+            "Sci-Fi", "Sport", "Thriller", "War", "Western"};
+    private static final String[] WORDS = {"The", "Last", "Night", "Return", "of", "Dark", "City", "Summer", "Love",
+            "House", "Dead", "Star", "King", "Road", "Secret", "Lost", "Blood", "Game", "World", "Queen", "River",
+            "Fire", "Ghost", "Wild", "Little", "Island", "Winter", "Shadow", "Heart", "Storm", "Girl", "Man", "Edge"};
+    private static final String[] FIRST_NAMES = {"Anna", "Ben", "Carla", "David", "Emma", "Felix", "Greta", "Hugo",
+            "Ines", "Jonas", "Karin", "Leo", "Maja", "Nils", "Olivia", "Paul", "Rosa", "Sam", "Tove", "Viktor"};
+    private static final String[] LAST_NAMES = {"Andersson", "Brown", "Costa", "Dubois", "Eriksson", "Fischer",
+            "Garcia", "Hansen", "Ito", "Jensen", "Kowalski", "Lindqvist", "Martin", "Novak", "Olsen", "Petrov",
+            "Quinn", "Rossi", "Smith", "Tanaka", "Weber"};
+
+    private Fixtures() {
+    }
+
+    /**
+     * Getter for the calendar page to parse, read from the file set in the system property "bench.calendar" or
+     * generated if it isn't set.
+     * @param articles Number of dates of a generated page.
+     * @return Returns the page as UTF-8 bytes.
+     * @throws IOException If the saved page couldn't be read.
+     */
+    static byte[] calendarPage(int articles) throws IOException {
+        String saved = System.getProperty("bench.calendar");
+        if (saved != null) {
+            return Files.readAllBytes(Path.of(saved));
+        }
+        return generateCalendarPage(articles).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Generates a calendar page with one article per date, starting today, each holding one to eight titles.
+     * @param articles Number of dates of the page.
+     * @return Returns the HTML of the page.
+     */
+    static String generateCalendarPage(int articles) {
+        Random random = new Random(SEED);
+        LocalDate date = LocalDate.now();
+        StringBuilder sb = new StringBuilder(articles * 6000);
+        sb.append("<!DOCTYPE html><html><head><title>Upcoming releases</title></head><body><main>");
+        int titleId = 1000000;
+        for (int a = 0; a < articles; a++) {
+            date = date.plusDays(1 + random.nextInt(3));
+            sb.append("<article class=\"sc-48add019-1 hSuRMl\"><div class=\"ipc-title\"><h3 class=\"ipc-title__text\">")
+                    .append(date.format(DATE_FORMATTER)).append("</h3></div><ul class=\"ipc-metadata-list\">");
+            int titles = 1 + random.nextInt(8);
+            for (int t = 0; t < titles; t++, titleId++) {
+                sb.append("<li class=\"ipc-metadata-list-summary-item\"><div class=\"ipc-poster\">");
+                if (random.nextInt(10) > 0) {
+                    sb.append("<img alt=\"\" class=\"ipc-image\" loading=\"lazy\" src=\"https://m.media-amazon.com/")
+                            .append("images/M/tt").append(titleId).append("._V1_QL75_UX140_CR0,0,140,207_.jpg\">");
+                }
+                sb.append("</div><div class=\"ipc-metadata-list-summary-item__c\">")
+                        .append("<div class=\"ipc-metadata-list-summary-item__tc\">")
+                        .append("<a class=\"ipc-metadata-list-summary-item__t\" href=\"/title/tt").append(titleId)
+                        .append("/?ref_=rlm\">").append(title(random)).append("</a>")
+                        .append("<ul class=\"").append(LIST_CLASSES)
+                        .append(" ipc-metadata-list-summary-item__tl base\" role=\"presentation\">");
+                for (String genre : genres(random)) {
+                    sb.append("<li class=\"ipc-inline-list__item\"><span class=\"ipc-metadata-list-summary-item__li\">")
+                            .append(genre).append("</span></li>");
+                }
+                sb.append("</ul><ul class=\"").append(LIST_CLASSES)
+                        .append(" ipc-metadata-list-summary-item__stl base\" role=\"presentation\">");
+                for (String member : topCast(random, 200)) {
+                    sb.append("<li class=\"ipc-inline-list__item\"><span class=\"ipc-metadata-list-summary-item__li\">")
+                            .append(member).append("</span></li>");
+                }
+                sb.append("</ul></div></div></li>");
+            }
+            sb.append("</ul></article>");
+        }
+        sb.append("</main></body></html>");
+        return sb.toString();
+    }
+
+    /**
+     * Generates a catalog of movies, released over the coming two years. Every tenth title has been released in a
+     * second region as well.
+     * @param size Number of titles.
+     * @return Returns the Content of the catalog, in no particular order.
+     */
+    static List<Object> catalog(int size) {
+        Random random = new Random(SEED + size);
+        LocalDate today = LocalDate.now();
+        List<Object> data = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String titleId = "tt" + (1000000 + i);
+            LocalDate releaseDate = today.plusDays(random.nextInt(730));
+            String[] genres = genres(random);
+            String[] topCast = topCast(random, Math.max(100, size / 4));
+            String posterUrl = random.nextInt(10) == 0 ? null
+                    : "https://m.media-amazon.com/images/M/" + titleId + "._V1_QL75_UX140_CR0,0,140,207_.jpg";
+            Object content = App.newContent(posterUrl, title(random), genres, topCast, releaseDate, "movie",
+                    "https://www.imdb.com/title/" + titleId + "/", "SE");
+            if (i % 10 == 0) {
+                content = App.mergeRegions(content, App.newContent(posterUrl, title(random), genres, topCast,
+                        releaseDate.plusDays(random.nextInt(30)), "movie", "https://www.imdb.com/title/" + titleId + "/",
+                        "US"));
+            }
+            data.add(content);
+        }
+        return data;
+    }
+
+    /**
+     * Picks queries for the search field, as typed by a user: parts of words of the titles.
+     * @param count Number of queries.
+     * @return Returns the queries.
+     */
+    static String[] searchQueries(int count) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        String[] queries = new String[count];
+        for (int i = 0; i < count; i++) {
+            String word = WORDS[random.nextInt(WORDS.length)].toLowerCase(Locale.ROOT);
+            queries[i] = word.substring(0, Math.min(word.length(), 2 + random.nextInt(4)));
+        }
+        return queries;
+    }
+
+    /**
+     * Generates a title of one to four words.
+     */
+    private static String title(Random random) {
+        StringBuilder sb = new StringBuilder();
+        int words = 1 + random.nextInt(4);
+        for (int w = 0; w < words; w++) {
+            if (w > 0) {
+                sb.append(' ');
+            }
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Picks one to three different genres, where the first genres of the list are the most common.
+     */
+    private static String[] genres(Random random) {
+        int count = 1 + random.nextInt(3);
+        List<String> genres = new ArrayList<>(count);
+        while (genres.size() < count) {
+            //Squaring skews the picks towards the start of the list
+            double skewed = random.nextDouble() * random.nextDouble();
+            String genre = GENRES[(int) (skewed * GENRES.length)];
+            if (!genres.contains(genre)) {
+                genres.add(genre);
+            }
+        }
+        return genres.toArray(new String[0]);
+    }
+
+    /**
+     * Picks two to four cast members from a pool of names.
+     * @param poolSize Number of different names the cast members are picked from.
+     */
+    private static String[] topCast(Random random, int poolSize) {
+        String[] topCast = new String[2 + random.nextInt(3)];
+        for (int i = 0; i < topCast.length; i++) {
+            int person = random.nextInt(poolSize);
+            topCast[i] = FIRST_NAMES[person % FIRST_NAMES.length] + " "
+                    + LAST_NAMES[(person / FIRST_NAMES.length) % LAST_NAMES.length]
+                    + (person >= FIRST_NAMES.length * LAST_NAMES.length ? " " + (person / 420) : "");
+        }
+        return topCast;
+    }
+}
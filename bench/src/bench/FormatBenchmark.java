@@ -0,0 +1,99 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks formatting the display strings of a catalog, as shown in the cells of the table, in the detail text of the
+ * GUI and in the TSV output of headless mode. Each benchmark formats every title of the catalog once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class FormatBenchmark {
+    /**
+     * Number of titles of the catalog.
+     */
+    @Param({"10000", "100000"})
+    public int size;
+
+    private List<Object> data;
+
+    /**
+     * Generates the catalog.
+     */
+    @Setup
+    public void setUp() {
+        data = Fixtures.catalog(size);
+    }
+
+    /**
+     * Formats the cells of the table: release date, genres and top cast.
+     * @param blackhole Consumes the strings.
+     */
+    @Benchmark
+    public void tableCells(Blackhole blackhole) {
+        for (Object content : data) {
+            blackhole.consume(App.getReleaseDate(content));
+            blackhole.consume(App.getGenres(content));
+            blackhole.consume(App.getTopCast(content));
+        }
+    }
+
+    /**
+     * Formats the release dates of every region.
+     * @param blackhole Consumes the strings.
+     */
+    @Benchmark
+    public void regionalReleaseDates(Blackhole blackhole) {
+        for (Object content : data) {
+            blackhole.consume(App.getRegionalReleaseDates(content));
+        }
+    }
+
+    /**
+     * Formats the main attributes, as shown for a selected title.
+     * @param blackhole Consumes the strings.
+     */
+    @Benchmark
+    public void mainAttributes(Blackhole blackhole) {
+        for (Object content : data) {
+            blackhole.consume(App.getMainAttributes(content));
+        }
+    }
+
+    /**
+     * Formats every title as text.
+     * @param blackhole Consumes the strings.
+     */
+    @Benchmark
+    public void contentToString(Blackhole blackhole) {
+        for (Object content : data) {
+            blackhole.consume(content.toString());
+        }
+    }
+
+    /**
+     * Writes the catalog as TSV to a writer that throws the output away.
+     */
+    @Benchmark
+    public void writeTsv() {
+        App.writeTsv(Writer.nullWriter(), data);
+    }
+}
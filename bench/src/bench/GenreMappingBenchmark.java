@@ -0,0 +1,72 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks mapping a scraped catalog by genre, as done after every scrape: building the genre index, building the
+ * search index, and the whole mapping of {@code Catalog}, which also updates the release dates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class GenreMappingBenchmark {
+    /**
+     * Number of titles of the catalog.
+     */
+    @Param({"10000", "100000"})
+    public int size;
+
+    private List<Object> data;
+    private Object genreIndex;
+
+    /**
+     * Generates the catalog, and builds a genre index for the benchmark of the search index.
+     */
+    @Setup
+    public void setUp() {
+        data = Fixtures.catalog(size);
+        genreIndex = App.buildGenreIndex(data);
+    }
+
+    /**
+     * Builds the genre index.
+     * @return Returns the index.
+     */
+    @Benchmark
+    public Object buildGenreIndex() {
+        return App.buildGenreIndex(data);
+    }
+
+    /**
+     * Builds the search index of an existing genre index.
+     * @return Returns the index.
+     */
+    @Benchmark
+    public Object buildSearchIndex() {
+        return App.buildSearchIndex(genreIndex);
+    }
+
+    /**
+     * Maps the catalog the way the genre mapping task does, into a new Catalog each time.
+     * @return Returns the published snapshot.
+     */
+    @Benchmark
+    public Object mapCatalog() {
+        return App.mapMovies(App.newCatalog(), data);
+    }
+}
@@ -0,0 +1,92 @@
+package bench;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks turning a calendar page into Content, as done by {@code CalendarScraper} once a page has been fetched:
+ * parsing the HTML, and extracting the Content of every article.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ParseBenchmark {
+    private static final String URL = "https://www.imdb.com/calendar/?region=SE&type=MOVIE";
+
+    /**
+     * Number of dates of the generated page, ignored when a saved page is used.
+     */
+    @Param({"40", "200"})
+    public int articles;
+
+    private byte[] page;
+    private Document document;
+    private Object extractor;
+
+    /**
+     * Reads or generates the page, and parses it once for the benchmarks that only extract.
+     * @throws IOException If the saved page couldn't be read.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        page = Fixtures.calendarPage(articles);
+        document = Jsoup.parse(new ByteArrayInputStream(page), "UTF-8", URL);
+        extractor = App.newExtractor("movie", "SE");
+        if (App.selectArticles(extractor, document).isEmpty()) {
+            throw new IllegalStateException("The calendar page has no articles");
+        }
+    }
+
+    /**
+     * Parses the page.
+     * @return Returns the parsed page.
+     * @throws IOException Never, as the page is read from memory.
+     */
+    @Benchmark
+    public Document parse() throws IOException {
+        return Jsoup.parse(new ByteArrayInputStream(page), "UTF-8", URL);
+    }
+
+    /**
+     * Extracts the Content of every article of the already parsed page.
+     * @param blackhole Consumes the extracted Content.
+     */
+    @Benchmark
+    public void extract(Blackhole blackhole) {
+        for (Element article : App.selectArticles(extractor, document)) {
+            blackhole.consume(App.extractArticle(extractor, article));
+        }
+    }
+
+    /**
+     * Parses the page and extracts the Content of every article, which is all a scrape does after fetching.
+     * @param blackhole Consumes the extracted Content.
+     * @throws IOException Never, as the page is read from memory.
+     */
+    @Benchmark
+    public void parseAndExtract(Blackhole blackhole) throws IOException {
+        Document parsed = Jsoup.parse(new ByteArrayInputStream(page), "UTF-8", URL);
+        for (Element article : App.selectArticles(extractor, parsed)) {
+            blackhole.consume(App.extractArticle(extractor, article));
+        }
+    }
+}
@@ -0,0 +1,228 @@
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Class that runs all background work of the program (scraping, genre mapping and so on) on one shared executor.
+ * The executor is either a bounded pool of named platform threads or, when the running JDK supports it, one virtual
+ * thread per task. The mode is chosen through {@link Settings#EXECUTOR_MODE} ("platform" or "virtual") and the size
+ * of the platform pool through {@link Settings#EXECUTOR_THREADS}.
+ */
+public final class BackgroundExecutor {
+    private static final String THREAD_NAME_PREFIX = "tracker-worker-";
+    private static final int DEFAULT_THREADS = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    private static final BackgroundExecutor SHARED = new BackgroundExecutor(
+            Settings.getString(Settings.EXECUTOR_MODE, "platform"),
+            Settings.getInt(Settings.EXECUTOR_THREADS, DEFAULT_THREADS));
+
+    private final ExecutorService executor;
+    private final boolean virtual;
+    private final AtomicInteger queuedTasks = new AtomicInteger();
+    private final AtomicInteger activeTasks = new AtomicInteger();
+    private final AtomicLong completedTasks = new AtomicLong();
+
+    /**
+     * Constructor that sets up the underlying executor.
+     * @param mode "virtual" for one virtual thread per task, anything else for a bounded platform pool.
+     * @param threads Maximum number of platform threads in the pool.
+     */
+    private BackgroundExecutor(String mode, int threads) {
+        ExecutorService virtualExecutor = null;
+        if ("virtual".equalsIgnoreCase(mode)) {
+            virtualExecutor = createVirtualThreadExecutor();
+            if (virtualExecutor == null) {
+                System.out.println("Virtual threads are not available, falling back to platform threads.");
+            }
+        }
+        if (virtualExecutor != null) {
+            executor = virtualExecutor;
+            virtual = true;
+        } else {
+            int poolSize = Math.max(1, threads);
+            AtomicInteger threadCount = new AtomicInteger();
+            ThreadFactory threadFactory = runnable -> {
+                Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+            executor = new ThreadPoolExecutor(poolSize, poolSize, 30, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), threadFactory);
+            ((ThreadPoolExecutor) executor).allowCoreThreadTimeOut(true);
+            virtual = false;
+        }
+    }
+
+    /**
+     * Getter for the executor shared by the whole program.
+     * @return Returns the shared executor.
+     */
+    public static BackgroundExecutor shared() {
+        return SHARED;
+    }
+
+    /**
+     * Method that queues a task for execution in the background. If the executor is shut down the task is rejected, and
+     * a task that is also a Future, such as a javafx Task, is cancelled so nothing waits for it forever.
+     * @param task Task to be run, for example a javafx Task.
+     */
+    public void execute(Runnable task) {
+        if (!enqueue(task) && task instanceof Future<?> future) {
+            future.cancel(false);
+        }
+    }
+
+    /**
+     * Method that queues a task that produces a result.
+     * @param task Task to be run.
+     * @return Returns a Future holding the result of the task. If the executor is shut down the Future has already
+     * failed with a {@link RejectedExecutionException}.
+     * @param <T> Type of the result.
+     */
+    public <T> Future<T> submit(Callable<T> task) {
+        FutureTask<T> futureTask = new FutureTask<>(task);
+        if (!enqueue(futureTask)) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Executor is shut down"));
+        }
+        return futureTask;
+    }
+
+    /**
+     * Queues a task on the underlying executor.
+     * @param task Task to be run.
+     * @return Returns true if the task was queued, false if it was rejected because the executor is shut down.
+     */
+    private boolean enqueue(Runnable task) {
+        queuedTasks.incrementAndGet();
+        try {
+            executor.execute(new TrackedTask(task));
+            return true;
+        } catch (RejectedExecutionException e) {
+            queuedTasks.decrementAndGet();
+            System.out.println("Background task rejected, executor is shut down.");
+            return false;
+        }
+    }
+
+    /**
+     * Inner class that runs a task while keeping the queue and activity counters up to date.
+     */
+    private final class TrackedTask implements Runnable {
+        private final Runnable task;
+
+        /**
+         * Constructor that sets the task.
+         * @param task Task to be run.
+         */
+        TrackedTask(Runnable task) {
+            this.task = task;
+        }
+
+        /**
+         * Runs the task.
+         */
+        @Override
+        public void run() {
+            queuedTasks.decrementAndGet();
+            activeTasks.incrementAndGet();
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                System.out.println("Unexpected exception in background task: " + e.getMessage());
+            } finally {
+                activeTasks.decrementAndGet();
+                completedTasks.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Getter for the number of tasks waiting to be started.
+     * @return Returns the current queue depth.
+     */
+    public int getQueueDepth() {
+        return queuedTasks.get();
+    }
+
+    /**
+     * Getter for the number of tasks currently running.
+     * @return Returns the number of active tasks.
+     */
+    public int getActiveTaskCount() {
+        return activeTasks.get();
+    }
+
+    /**
+     * Getter for the number of tasks that have finished since start.
+     * @return Returns the number of completed tasks.
+     */
+    public long getCompletedTaskCount() {
+        return completedTasks.get();
+    }
+
+    /**
+     * Getter for the mode of the executor.
+     * @return Returns true if tasks are run on virtual threads.
+     */
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * Method that stops accepting new tasks, gives running tasks a moment to finish and then interrupts them. Tasks that
+     * never started are cancelled if they are Futures, so nothing waits for them forever.
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(2, TimeUnit.SECONDS)) {
+                cancelNeverStarted(executor.shutdownNow());
+            }
+        } catch (InterruptedException e) {
+            cancelNeverStarted(executor.shutdownNow());
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Cancels the tasks that were still queued when the executor was shut down.
+     * @param neverStarted The queued tasks, as returned by {@link ExecutorService#shutdownNow()}.
+     */
+    private void cancelNeverStarted(List<Runnable> neverStarted) {
+        for (Runnable runnable : neverStarted) {
+            queuedTasks.decrementAndGet();
+            if (runnable instanceof TrackedTask tracked && tracked.task instanceof Future<?> future) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Creates an executor that starts one named virtual thread per task. Looked up reflectively so that the program
+     * still compiles and runs on JDKs where virtual threads are missing or only available as a preview.
+     * @return Returns the executor, or null if virtual threads can't be used.
+     */
+    private static ExecutorService createVirtualThreadExecutor() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, THREAD_NAME_PREFIX + "v", 1L);
+            ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            Method perTask = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) perTask.invoke(null, factory);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,253 @@
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeBodyPart;
+import javax.mail.internet.MimeMessage;
+import javax.mail.internet.MimeMultipart;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Class that sends many emails through a small pool of connected SMTP transports, so the connection, TLS handshake
+ * and authentication are done once per transport instead of once per email. All transports share one Session. The
+ * emails of a batch are spread over the transports, each sending its emails one after the other over the same
+ * connection, and a transport that has lost its connection is reconnected and the email sent again. Connected
+ * transports are kept between batches until the sender is closed.
+ */
+public class BulkEmailSender implements AutoCloseable {
+    private static final int DEFAULT_POOL_SIZE = 3;
+    private static final int MAX_ATTEMPTS = 2;
+
+    private final Session session;
+    private final String from;
+    private final int poolSize;
+    private final BlockingQueue<Transport> idleTransports = new LinkedBlockingQueue<>();
+    private volatile boolean closed = false;
+
+    /**
+     * Record for an email to be sent.
+     * @param to Email address of the recipient.
+     * @param subject Title of the email.
+     * @param text Text contents of the email.
+     * @param html HTML contents of the email, sent as an alternative to the text, or null to only send the text.
+     */
+    public record Email(String to, String subject, String text, String html) {
+    }
+
+    /**
+     * Record for the outcome of sending an email.
+     * @param recipient Email address of the recipient.
+     * @param sent Whether the email was accepted by the SMTP server.
+     * @param error Why the email wasn't sent, or null if it was.
+     */
+    public record Result(String recipient, boolean sent, String error) {
+    }
+
+    /**
+     * Constructor that sets up a sender using the shared Session of {@link EmailSender}, with the pool size from
+     * {@link Settings}.
+     */
+    public BulkEmailSender() {
+        this(EmailSender.getSession(), EmailSender.getUsername(),
+                Math.max(1, Settings.getInt(Settings.SMTP_POOL_SIZE, DEFAULT_POOL_SIZE)));
+    }
+
+    /**
+     * Constructor that sets up a sender.
+     * @param session Session the transports are created from.
+     * @param from Email address the emails are sent from.
+     * @param poolSize Largest number of transports connected at once.
+     */
+    public BulkEmailSender(Session session, String from, int poolSize) {
+        this.session = session;
+        this.from = from;
+        this.poolSize = poolSize;
+    }
+
+    /**
+     * Sends a batch of emails. Blocks until every email has been sent or has failed. The calling thread sends through
+     * one transport, and the shared {@link BackgroundExecutor} through the others.
+     * @param emails The emails to send.
+     * @return Returns the outcome of each email, in the same order as the emails.
+     */
+    public List<Result> sendAll(List<Email> emails) {
+        Result[] results = new Result[emails.size()];
+        AtomicInteger nextEmail = new AtomicInteger();
+        int workers = Math.min(poolSize, emails.size());
+
+        List<Future<?>> otherWorkers = new ArrayList<>();
+        for (int i = 1; i < workers; i++) {
+            otherWorkers.add(BackgroundExecutor.shared().submit(() -> {
+                sendFromQueue(emails, results, nextEmail);
+                return null;
+            }));
+        }
+        if (workers > 0) {
+            sendFromQueue(emails, results, nextEmail);
+        }
+        for (Future<?> worker : otherWorkers) {
+            try {
+                worker.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                System.out.println("Unexpected exception: " + e.getCause());
+            } catch (CancellationException e) {
+                //The worker never started as the executor was shut down, its emails are reported as not sent
+            }
+        }
+
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] == null) {
+                results[i] = new Result(emails.get(i).to(), false, "Not sent");
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Sends emails of a batch through one transport until no emails are left.
+     * @param emails The emails of the batch.
+     * @param results The outcome of each email, filled in as they are sent.
+     * @param nextEmail Position of the next email no transport has taken yet.
+     */
+    private void sendFromQueue(List<Email> emails, Result[] results, AtomicInteger nextEmail) {
+        Transport transport = idleTransports.poll();
+        try {
+            //An idle transport may have been disconnected by the server, which is checked once before it is reused
+            if (transport != null && !isConnected(transport)) {
+                close(transport);
+                transport = null;
+            }
+            int position;
+            while (!closed && (position = nextEmail.getAndIncrement()) < emails.size()) {
+                Email email = emails.get(position);
+                Message message;
+                try {
+                    message = createMessage(email);
+                } catch (MessagingException e) {
+                    PipelineMetrics.EMAILS_FAILED.increment();
+                    results[position] = new Result(email.to(), false, e.getMessage());
+                    continue;
+                }
+
+                for (int attempt = 1; results[position] == null; attempt++) {
+                    try {
+                        if (transport == null) {
+                            transport = connect();
+                        }
+                        long start = System.nanoTime();
+                        transport.sendMessage(message, message.getAllRecipients());
+                        PipelineMetrics.EMAIL_SEND_TIME.recordSince(start);
+                        PipelineMetrics.EMAILS_SENT.increment();
+                        results[position] = new Result(email.to(), true, null);
+                    } catch (SendFailedException e) {
+                        //The server refused the recipient, but the connection is still usable
+                        PipelineMetrics.EMAILS_FAILED.increment();
+                        results[position] = new Result(email.to(), false, e.getMessage());
+                    } catch (MessagingException e) {
+                        close(transport);
+                        transport = null;
+                        if (attempt >= MAX_ATTEMPTS) {
+                            PipelineMetrics.EMAILS_FAILED.increment();
+                            results[position] = new Result(email.to(), false, e.getMessage());
+                        } else {
+                            PipelineMetrics.EMAIL_RETRIES.increment();
+                        }
+                    }
+                }
+            }
+        } finally {
+            if (transport != null && !closed) {
+                idleTransports.offer(transport);
+            } else {
+                close(transport);
+            }
+        }
+    }
+
+    /**
+     * Connects a new transport.
+     * @return Returns the connected transport.
+     * @throws MessagingException If connecting failed.
+     */
+    private Transport connect() throws MessagingException {
+        Transport transport = session.getTransport("smtp");
+        transport.connect();
+        return transport;
+    }
+
+    /**
+     * Checks whether a transport is still connected, which asks the SMTP server.
+     * @param transport The transport.
+     * @return Returns true if the transport can be used.
+     */
+    private static boolean isConnected(Transport transport) {
+        try {
+            return transport.isConnected();
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Builds the message of an email, with the HTML as an alternative to the text if there is any.
+     * @param email The email.
+     * @return Returns the message.
+     * @throws MessagingException If an address is invalid or the message couldn't be built.
+     */
+    private Message createMessage(Email email) throws MessagingException {
+        MimeMessage message = new MimeMessage(session);
+        message.setFrom(new InternetAddress(from));
+        message.setRecipient(Message.RecipientType.TO, new InternetAddress(email.to(), true));
+        message.setSubject(email.subject(), "UTF-8");
+        if (email.html() == null) {
+            message.setText(email.text(), "UTF-8");
+        } else {
+            MimeBodyPart textPart = new MimeBodyPart();
+            textPart.setText(email.text(), "UTF-8");
+            MimeBodyPart htmlPart = new MimeBodyPart();
+            htmlPart.setText(email.html(), "UTF-8", "html");
+            message.setContent(new MimeMultipart("alternative", textPart, htmlPart));
+        }
+        message.saveChanges();
+        return message;
+    }
+
+    /**
+     * Closes a transport, ignoring errors.
+     * @param transport The transport, or null.
+     */
+    private static void close(Transport transport) {
+        if (transport != null) {
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                //Already disconnected
+            }
+        }
+    }
+
+    /**
+     * Closes all idle transports. Batches that are being sent stop after their current email.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        Transport transport;
+        while ((transport = idleTransports.poll()) != null) {
+            close(transport);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.UUID;
+
+/**
+ * Helper class for the on-disk caches: turns URLs into file names and writes files without leaving half-written
+ * files behind if the program is closed in the middle of a write.
+ */
+final class CacheFiles {
+
+    private CacheFiles() {
+    }
+
+    /**
+     * Creates a file name that is unique for a given URL.
+     * @param url URL to create a file name for.
+     * @return Returns the hex encoded SHA-256 hash of the URL.
+     */
+    static String fileNameFor(String url) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+                sb.append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Writes bytes to a file by first writing a temporary file and then moving it into place.
+     * @param file File to be written.
+     * @param bytes Contents of the file.
+     * @throws IOException If the file couldn't be written.
+     */
+    static void writeAtomically(Path file, byte[] bytes) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temporaryFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            Files.write(temporaryFile, bytes);
+            try {
+                Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    /**
+     * Writes bytes to a file meant for the user, such as an exported catalog, by first writing a temporary file and then
+     * moving it into place. Unlike {@link #writeAtomically}, whose temporary files can only be read by the owner, a new
+     * file gets the default permissions of the user, and a file that is replaced keeps its permissions.
+     * @param file File to be written.
+     * @param bytes Contents of the file.
+     * @throws IOException If the file couldn't be written.
+     */
+    static void writeAtomicallyForUser(Path file, byte[] bytes) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporaryFile = directory.resolve(file.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temporaryFile, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.WRITE)) {
+                out.write(bytes);
+            }
+            if (Files.exists(file) && Files.getFileStore(file).supportsFileAttributeView(PosixFileAttributeView.class)) {
+                Files.setPosixFilePermissions(temporaryFile, Files.getPosixFilePermissions(file));
+            }
+            try {
+                Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+}
@@ -0,0 +1,250 @@
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Class that scrapes IMDB:s calendars of upcoming movies and tv-shows, without depending on JavaFX. Each content type
+ * is scraped from the calendars of the regions set in {@link Settings#MOVIE_REGIONS} and
+ * {@link Settings#TV_SHOW_REGIONS}, all fetched at the same time, and the results are merged into one title per IMDB id
+ * with the release date of each region. Progress, streamed Content and errors are reported to a {@link ScrapeListener}.
+ * A scraper that revalidates asks the server about every page, instead of using pages cached within their max age.
+ */
+public class CalendarScraper {
+    private static final String IMDB_CALENDAR_URL = "https://www.imdb.com/calendar/?ref_=rlm&region=%s&type=%s";
+    private static final String DEFAULT_MOVIE_REGIONS = "SE";
+    private static final String DEFAULT_TV_SHOW_REGIONS = "US";
+    private static final Map<String, List<Content>> PARSED_PAGES = new ConcurrentHashMap<>();
+
+    private final boolean revalidate;
+
+    /**
+     * Constructor for a scraper that uses calendar pages cached within their max age.
+     */
+    public CalendarScraper() {
+        this(false);
+    }
+
+    /**
+     * Constructor that sets whether cached calendar pages are always revalidated with the server.
+     * @param revalidate True to always revalidate, as scheduled refreshes do, false to use fresh cached pages.
+     */
+    public CalendarScraper(boolean revalidate) {
+        this.revalidate = revalidate;
+    }
+
+    /**
+     * Scrapes movies of all configured regions. Blocks until the scrape is done.
+     * @param listener Follows the scrape.
+     * @return Returns all movies, merged by IMDB id.
+     */
+    public List<Content> scrapeMovies(ScrapeListener listener) {
+        return scrape(Settings.getList(Settings.MOVIE_REGIONS, DEFAULT_MOVIE_REGIONS), "MOVIE", "Movie", listener);
+    }
+
+    /**
+     * Scrapes tv-shows of all configured regions. Blocks until the scrape is done.
+     * @param listener Follows the scrape.
+     * @return Returns all tv-shows, merged by IMDB id.
+     */
+    public List<Content> scrapeTvShows(ScrapeListener listener) {
+        return scrape(Settings.getList(Settings.TV_SHOW_REGIONS, DEFAULT_TV_SHOW_REGIONS), "TV", "Tv-show", listener);
+    }
+
+    /**
+     * Scrapes the calendars of several regions at the same time and merges the results. Every region but the first is
+     * handed to the shared {@link BackgroundExecutor}, while the calling thread scrapes the first region itself. A
+     * region that hasn't been picked up by the time its result is needed is scraped by the calling thread as well, so
+     * the scrape never waits for a free thread.
+     * @param regions Codes of the regions to scrape, in order of priority.
+     * @param calendarType The type of the calendar pages to scrape (MOVIE or TV).
+     * @param contentType The type of Content found on the calendar pages (movie or tv-show).
+     * @param listener Follows the scrape.
+     * @return Returns the Content of all regions, merged by IMDB id.
+     */
+    public List<Content> scrape(List<String> regions, String calendarType, String contentType, ScrapeListener listener) {
+        ProgressTracker progress = new ProgressTracker(regions.size(), listener);
+        List<FutureTask<List<Content>>> otherRegions = new ArrayList<>();
+        for (int i = 1; i < regions.size(); i++) {
+            final int regionIndex = i;
+            FutureTask<List<Content>> regionTask = new FutureTask<>(() ->
+                    scrapeRegion(regions.get(regionIndex), calendarType, contentType, null, progress, regionIndex));
+            otherRegions.add(regionTask);
+            BackgroundExecutor.shared().execute(regionTask);
+        }
+
+        List<List<Content>> regionData = new ArrayList<>();
+        if (!regions.isEmpty()) {
+            regionData.add(scrapeRegion(regions.get(0), calendarType, contentType, listener, progress, 0));
+        }
+        for (FutureTask<List<Content>> regionTask : otherRegions) {
+            //Does nothing if the region is already being scraped by another thread
+            regionTask.run();
+            try {
+                regionData.add(regionTask.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                System.out.println("Unexpected exception: " + e.getCause());
+            }
+        }
+        return mergeRegions(regionData);
+    }
+
+    /**
+     * Fetches upcoming content releases of one region and processes them into a list of {@code Content} objects.
+     * The page is fetched through {@link PageCache}, revalidated if this scraper revalidates, and if it is unchanged
+     * since it was last parsed the earlier result is returned without parsing again. Uses JSoup for HTML parsing and
+     * {@link ContentExtractor} for collecting information such as titles, genres, top cast, and IMDB URLs of content
+     * released the current, next, and year after next.
+     *
+     * @param region Code of the region.
+     * @param calendarType The type of the calendar page.
+     * @param contentType The type of Content found on the calendar page.
+     * @param batchListener Receives the Content of each processed Article-element, or null if not streaming.
+     * @param progress Tracks the progress of all regions.
+     * @param regionIndex Position of the region in the list of regions.
+     * @return List of upcoming content releases of the region, or the releases found before an error occurred.
+     */
+    private List<Content> scrapeRegion(String region, String calendarType, String contentType,
+                                       ScrapeListener batchListener, ProgressTracker progress, int regionIndex) {
+        String url = String.format(IMDB_CALENDAR_URL, region, calendarType);
+        List<Content> regionData = new ArrayList<>();
+        try {
+            final PageCache.Page page = PageCache.shared().fetch(url, revalidate);
+
+            //Skip parsing if the page is unchanged since it was last parsed
+            List<Content> previousData = PARSED_PAGES.get(url);
+            if (!page.modified() && previousData != null) {
+                regionData.addAll(previousData);
+                publish(batchListener, regionData);
+                progress.report(regionIndex, 1);
+                return regionData;
+            }
+            long parseStart = System.nanoTime();
+            final Document document = Jsoup.parse(new ByteArrayInputStream(page.body()), page.charset(), url);
+            ContentExtractor extractor = new ContentExtractor(contentType, region);
+
+            //Get all upcoming releases to iterate through
+            Elements articleElements = extractor.selectArticles(document);
+
+            //Set up advancing of progress for reporting back to the listener.
+            int totalSteps = articleElements.size();
+            int currentStep = 0;
+
+            //Iterate over each Article-element (where one Article-element contains all Content to be released a given date)
+            for (Element articleElement : articleElements) {
+                List<Content> articleData = extractor.extractArticle(articleElement);
+                PipelineMetrics.TITLES_PER_ARTICLE.record(articleData.size());
+                regionData.addAll(articleData);
+                publish(batchListener, articleData);
+
+                currentStep++;
+                progress.report(regionIndex, (double) currentStep / totalSteps);
+            }
+            PipelineMetrics.PARSE_TIME.recordSince(parseStart);
+            PARSED_PAGES.put(url, List.copyOf(regionData));
+        } catch (Exception e) {
+            progress.listener.onError(url, e);
+        }
+        return regionData;
+    }
+
+    /**
+     * Publishes Content to be streamed, if streaming.
+     * @param batchListener Receives the Content, or null if not streaming.
+     * @param content Content that has been processed.
+     */
+    private static void publish(ScrapeListener batchListener, List<Content> content) {
+        if (batchListener != null && !content.isEmpty()) {
+            batchListener.onBatch(content);
+        }
+    }
+
+    /**
+     * Merges the Content scraped in one or more regions into one Content per IMDB id and listed date. A title listed on
+     * several dates of a region keeps one Content per distinct date, and the dates of a title are matched between
+     * regions in order, so the earliest listing of a title in one region is merged with its earliest listing in every
+     * other region, the second with the second, and so on. The merged Content keeps the attributes of the region it was
+     * first found in and the release date of every region. The same rule applies to a single region, where it only
+     * drops listings of a title on the same date.
+     * @param regionData The Content of each region, in order of priority.
+     * @return Returns the merged Content, in order of release date.
+     */
+    static List<Content> mergeRegions(List<List<Content>> regionData) {
+        Comparator<Content> byDate = Comparator.comparing(Content::releaseDate,
+                Comparator.nullsLast(Comparator.naturalOrder()));
+        Map<String, List<Content>> byTitleId = new LinkedHashMap<>();
+        for (List<Content> data : regionData) {
+            //The distinct dates of each title in this region
+            Map<String, List<Content>> regionListings = new LinkedHashMap<>();
+            for (Content c : data) {
+                List<Content> listings = regionListings.computeIfAbsent(c.getTitleId(), id -> new ArrayList<>());
+                if (listings.stream().noneMatch(listing -> Objects.equals(listing.releaseDate(), c.releaseDate()))) {
+                    listings.add(c);
+                }
+            }
+            for (Map.Entry<String, List<Content>> title : regionListings.entrySet()) {
+                List<Content> listings = title.getValue();
+                listings.sort(byDate);
+                List<Content> merged = byTitleId.computeIfAbsent(title.getKey(), id -> new ArrayList<>());
+                for (int i = 0; i < listings.size(); i++) {
+                    if (i < merged.size()) {
+                        merged.set(i, merged.get(i).mergeRegions(listings.get(i)));
+                    } else {
+                        merged.add(listings.get(i));
+                    }
+                }
+            }
+        }
+        List<Content> merged = new ArrayList<>();
+        for (List<Content> listings : byTitleId.values()) {
+            merged.addAll(listings);
+        }
+        merged.sort(byDate);
+        return merged;
+    }
+
+    /**
+     * Inner class that combines the progress of all regions of a scrape into the progress of the whole scrape.
+     */
+    private static final class ProgressTracker {
+        private final double[] regionProgress;
+        private final ScrapeListener listener;
+
+        /**
+         * Constructor that sets up tracking of a number of regions.
+         * @param regions Number of regions.
+         * @param listener Receives the progress of the whole scrape.
+         */
+        ProgressTracker(int regions, ScrapeListener listener) {
+            this.regionProgress = new double[regions];
+            this.listener = listener;
+        }
+
+        /**
+         * Reports the progress of one region, and reports the average of all regions to the listener.
+         * @param regionIndex Position of the region in the list of regions.
+         * @param progress Progress of the region, from 0 to 1.
+         */
+        synchronized void report(int regionIndex, double progress) {
+            regionProgress[regionIndex] = progress;
+            double total = 0;
+            for (double p : regionProgress) {
+                total += p;
+            }
+            listener.onProgress(total / regionProgress.length);
+        }
+    }
+}
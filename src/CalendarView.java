@@ -0,0 +1,215 @@
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.RadioButton;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.control.ToggleGroup;
+import javafx.scene.control.Tooltip;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.ColumnConstraints;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.RowConstraints;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.TextStyle;
+import java.time.temporal.TemporalAdjusters;
+import java.time.temporal.WeekFields;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.function.Consumer;
+
+/**
+ * Class for a popup that shows the Content of a {@link ReleaseDateIndex} as a calendar, one month or one week at a time.
+ * Only the Content of the visible range is looked up and turned into components, so navigating doesn't depend on the
+ * size of the whole catalog.
+ */
+public class CalendarView {
+    private static final int TITLES_PER_DAY_IN_MONTH = 3;
+    private static final DateTimeFormatter MONTH_FORMATTER = DateTimeFormatter.ofPattern("MMMM yyyy", Locale.ENGLISH);
+    private static final DateTimeFormatter DAY_FORMATTER = DateTimeFormatter.ofPattern("d MMM yyyy", Locale.ENGLISH);
+    private final ReleaseDateIndex index;
+    private final Consumer<Content> onOpen;
+    private final DayOfWeek firstDayOfWeek = WeekFields.of(Locale.getDefault()).getFirstDayOfWeek();
+    private final GridPane grid = new GridPane();
+    private final Label rangeLabel = new Label();
+    private final RadioButton monthRadioButton = new RadioButton("Month");
+    private LocalDate shownDate = LocalDate.now();
+
+    /**
+     * Constructor that sets the index to display.
+     * @param index Index of all Content by release date.
+     * @param onOpen Performed with a Content when the user double-clicks it.
+     */
+    public CalendarView(ReleaseDateIndex index, Consumer<Content> onOpen) {
+        this.index = index;
+        this.onOpen = onOpen;
+    }
+
+    /**
+     * Shows the calendar in a new window, starting at the current month.
+     */
+    public void show() {
+        Button previousButton = new Button("<");
+        previousButton.setOnAction(e -> move(-1));
+        Button todayButton = new Button("Today");
+        todayButton.setOnAction(e -> {
+            shownDate = LocalDate.now();
+            render();
+        });
+        Button nextButton = new Button(">");
+        nextButton.setOnAction(e -> move(1));
+
+        RadioButton weekRadioButton = new RadioButton("Week");
+        ToggleGroup toggleGroup = new ToggleGroup();
+        monthRadioButton.setToggleGroup(toggleGroup);
+        weekRadioButton.setToggleGroup(toggleGroup);
+        monthRadioButton.setSelected(true);
+        toggleGroup.selectedToggleProperty().addListener((observable, oldToggle, newToggle) -> render());
+
+        rangeLabel.setStyle("-fx-font-weight: bold; -fx-font-size: 14px;");
+        HBox navigationHbox = new HBox(5, previousButton, todayButton, nextButton, rangeLabel);
+        navigationHbox.setAlignment(Pos.CENTER_LEFT);
+        HBox modeHbox = new HBox(10, monthRadioButton, weekRadioButton);
+        modeHbox.setAlignment(Pos.CENTER_RIGHT);
+        HBox.setHgrow(modeHbox, Priority.ALWAYS);
+        HBox topHbox = new HBox(navigationHbox, modeHbox);
+        topHbox.setPadding(new Insets(0, 0, 10, 0));
+
+        grid.setHgap(2);
+        grid.setVgap(2);
+        for (int column = 0; column < 7; column++) {
+            ColumnConstraints constraints = new ColumnConstraints();
+            constraints.setPercentWidth(100.0 / 7);
+            grid.getColumnConstraints().add(constraints);
+        }
+
+        BorderPane root = new BorderPane();
+        root.setTop(topHbox);
+        root.setCenter(grid);
+        root.setPadding(new Insets(10));
+
+        render();
+
+        Stage popupStage = new Stage();
+        popupStage.setTitle("Release calendar");
+        popupStage.setScene(new Scene(root, 900, 650));
+        popupStage.show();
+    }
+
+    /**
+     * Moves the calendar one month or week back or forward.
+     * @param steps Number of months or weeks to move, negative to move back.
+     */
+    private void move(int steps) {
+        shownDate = monthRadioButton.isSelected() ? shownDate.plusMonths(steps) : shownDate.plusWeeks(steps);
+        render();
+    }
+
+    /**
+     * Rebuilds the calendar for the visible range. A month is shown as six full weeks, a week as one row.
+     */
+    private void render() {
+        boolean monthMode = monthRadioButton.isSelected();
+        LocalDate first;
+        int weeks;
+        if (monthMode) {
+            first = shownDate.withDayOfMonth(1).with(TemporalAdjusters.previousOrSame(firstDayOfWeek));
+            weeks = 6;
+            rangeLabel.setText(shownDate.format(MONTH_FORMATTER));
+        } else {
+            first = shownDate.with(TemporalAdjusters.previousOrSame(firstDayOfWeek));
+            weeks = 1;
+            rangeLabel.setText(first.format(DAY_FORMATTER) + " - " + first.plusDays(6).format(DAY_FORMATTER));
+        }
+        LocalDate last = first.plusDays(weeks * 7L - 1);
+        NavigableMap<LocalDate, List<Content>> days = index.getDays(first, last);
+
+        grid.getChildren().clear();
+        grid.getRowConstraints().clear();
+        for (int column = 0; column < 7; column++) {
+            Label dayName = new Label(firstDayOfWeek.plus(column).getDisplayName(TextStyle.SHORT, Locale.ENGLISH));
+            dayName.setMaxWidth(Double.MAX_VALUE);
+            dayName.setAlignment(Pos.CENTER);
+            grid.add(dayName, column, 0);
+        }
+        grid.getRowConstraints().add(new RowConstraints());
+        for (int row = 0; row < weeks; row++) {
+            RowConstraints constraints = new RowConstraints();
+            constraints.setVgrow(Priority.ALWAYS);
+            constraints.setFillHeight(true);
+            grid.getRowConstraints().add(constraints);
+        }
+
+        for (int i = 0; i < weeks * 7; i++) {
+            LocalDate date = first.plusDays(i);
+            boolean dimmed = monthMode && date.getMonth() != shownDate.getMonth();
+            List<Content> titles = days.getOrDefault(date, List.of());
+            grid.add(createDayCell(date, titles, monthMode, dimmed), i % 7, i / 7 + 1);
+        }
+    }
+
+    /**
+     * Creates the component for one day of the calendar. In month mode only the first few titles are shown, in week
+     * mode all titles are shown in a scrollable list.
+     * @param date The date of the day.
+     * @param titles The Content released on the day.
+     * @param monthMode True if a month is shown.
+     * @param dimmed True if the day is outside the shown month.
+     * @return Returns the component.
+     */
+    private VBox createDayCell(LocalDate date, List<Content> titles, boolean monthMode, boolean dimmed) {
+        Label dateLabel = new Label(String.valueOf(date.getDayOfMonth()));
+        dateLabel.setStyle(date.equals(LocalDate.now()) ? "-fx-font-weight: bold; -fx-text-fill: #1a5fb4;" : "-fx-font-weight: bold;");
+
+        VBox titlesVbox = new VBox(1);
+        int shown = monthMode ? Math.min(titles.size(), TITLES_PER_DAY_IN_MONTH) : titles.size();
+        for (int i = 0; i < shown; i++) {
+            titlesVbox.getChildren().add(createTitleLabel(titles.get(i)));
+        }
+        if (shown < titles.size()) {
+            titlesVbox.getChildren().add(new Label("+" + (titles.size() - shown) + " more"));
+        }
+
+        VBox cell = new VBox(2, dateLabel);
+        if (monthMode) {
+            cell.getChildren().add(titlesVbox);
+        } else {
+            ScrollPane scrollPane = new ScrollPane(titlesVbox);
+            scrollPane.setFitToWidth(true);
+            VBox.setVgrow(scrollPane, Priority.ALWAYS);
+            cell.getChildren().add(scrollPane);
+        }
+        cell.setPadding(new Insets(3));
+        cell.setMaxSize(Double.MAX_VALUE, Double.MAX_VALUE);
+        cell.setStyle("-fx-border-color: #d0d0d0; -fx-background-color: " + (dimmed ? "#f2f2f2;" : "white;"));
+        cell.setOpacity(dimmed ? 0.6 : 1.0);
+        return cell;
+    }
+
+    /**
+     * Creates the component for one title of a day.
+     * @param content The Content.
+     * @return Returns a label with the title, that shows the main attributes when hovered and opens the Content when
+     * double-clicked.
+     */
+    private Label createTitleLabel(Content content) {
+        Label titleLabel = new Label(("Tv-show".equals(content.type()) ? "[TV] " : "") + content.title());
+        titleLabel.setMaxWidth(Double.MAX_VALUE);
+        titleLabel.setTooltip(new Tooltip(content.getMainAttributes()));
+        titleLabel.setOnMouseClicked(e -> {
+            if (e.getClickCount() == 2) {
+                onOpen.accept(content);
+            }
+        });
+        return titleLabel;
+    }
+}
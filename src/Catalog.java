@@ -0,0 +1,129 @@
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Class that maps scraped Content into the indexes of the catalog, without depending on JavaFX. The mapped data is
+ * published as immutable {@link CatalogSnapshot}s through an atomic reference, so it can be read from any thread without
+ * locking or copying. All mapped Content is also kept in a {@link ReleaseDateIndex}, shared by both content types.
+ * Every mapping is stamped with a sequence number before it starts, and a mapping that finishes after a later mapping of
+ * the same content type is dropped, so neither the snapshot nor the release date index ever goes back to older data.
+ */
+public class Catalog {
+    private final AtomicReference<CatalogSnapshot> snapshot = new AtomicReference<>(CatalogSnapshot.empty());
+    private final ReleaseDateIndex releaseDates = new ReleaseDateIndex();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, Long> publishedSequences = new HashMap<>();
+
+    /**
+     * Interface for building the next snapshot from the current one and the indexes of newly mapped Content.
+     */
+    private interface SnapshotUpdate {
+        /**
+         * Builds the next snapshot.
+         * @param current The current snapshot.
+         * @param genreIndex Genre index of the newly mapped Content.
+         * @param searchIndex Search index of the newly mapped Content.
+         * @return Returns the next snapshot.
+         */
+        CatalogSnapshot apply(CatalogSnapshot current, GenreIndex genreIndex, SearchIndex searchIndex);
+    }
+
+    /**
+     * Maps movies by genre, for search and by release date, and publishes them in a new snapshot. Blocks until the
+     * mapping is done.
+     * @param data All movies.
+     * @return Returns the published snapshot.
+     */
+    public CatalogSnapshot mapMovies(List<Content> data) {
+        return mapMovies(data, nextSequence());
+    }
+
+    /**
+     * Maps movies stamped with a sequence number, and publishes them unless movies with a later sequence number have
+     * already been published. Blocks until the mapping is done.
+     * @param data All movies.
+     * @param sequence Sequence number from {@link #nextSequence}, taken when the mapping was started.
+     * @return Returns the published snapshot, or the current snapshot if the mapping was dropped.
+     */
+    public CatalogSnapshot mapMovies(List<Content> data, long sequence) {
+        return map(data, sequence, "Movie", CatalogSnapshot::withMovies);
+    }
+
+    /**
+     * Maps tv-shows by genre, for search and by release date, and publishes them in a new snapshot. Blocks until the
+     * mapping is done.
+     * @param data All tv-shows.
+     * @return Returns the published snapshot.
+     */
+    public CatalogSnapshot mapTvShows(List<Content> data) {
+        return mapTvShows(data, nextSequence());
+    }
+
+    /**
+     * Maps tv-shows stamped with a sequence number, and publishes them unless tv-shows with a later sequence number have
+     * already been published. Blocks until the mapping is done.
+     * @param data All tv-shows.
+     * @param sequence Sequence number from {@link #nextSequence}, taken when the mapping was started.
+     * @return Returns the published snapshot, or the current snapshot if the mapping was dropped.
+     */
+    public CatalogSnapshot mapTvShows(List<Content> data, long sequence) {
+        return map(data, sequence, "Tv-show", CatalogSnapshot::withTvShows);
+    }
+
+    /**
+     * Takes the next sequence number, for a mapping that is started now but run later, for example on another thread.
+     * @return Returns a sequence number larger than all numbers taken before.
+     */
+    public long nextSequence() {
+        return sequence.incrementAndGet();
+    }
+
+    /**
+     * Maps Content of one type and publishes it in a new snapshot, unless Content of the type with a later sequence
+     * number has already been published. The indexes are built without holding any lock, and the release date index and
+     * the snapshot are then updated together.
+     * @param data All Content of the type.
+     * @param sequence Sequence number of the mapping.
+     * @param type The type of the Content (movie or tv-show).
+     * @param update Builds the next snapshot from the current one and the newly mapped Content.
+     * @return Returns the published snapshot, or the current snapshot if the mapping was dropped.
+     */
+    private CatalogSnapshot map(List<Content> data, long sequence, String type, SnapshotUpdate update) {
+        long start = System.nanoTime();
+        GenreIndex index = GenreIndex.build(data);
+        SearchIndex searchIndex = SearchIndex.build(index);
+        CatalogSnapshot mapped;
+        synchronized (publishedSequences) {
+            Long published = publishedSequences.get(type);
+            if (published != null && published > sequence) {
+                mapped = snapshot.get();
+            } else {
+                releaseDates.replace(type, data);
+                mapped = snapshot.updateAndGet(current -> update.apply(current, index, searchIndex));
+                publishedSequences.put(type, sequence);
+            }
+        }
+        PipelineMetrics.GENRE_MAPPING_TIME.recordSince(start);
+        return mapped;
+    }
+
+    /**
+     * Getter for the latest snapshot of the catalog.
+     * @return Returns the snapshot, which is never changed once published.
+     */
+    public CatalogSnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * Getter for the index of all Content by release date. Content that is streamed while scraping can be added to it
+     * directly, and it is brought up to date with the complete scrape every time a content type is mapped.
+     * @return Returns the index.
+     */
+    public ReleaseDateIndex getReleaseDates() {
+        return releaseDates;
+    }
+}
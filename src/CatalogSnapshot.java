@@ -0,0 +1,46 @@
+import java.time.Instant;
+
+/**
+ * Record for an immutable snapshot of the whole catalog of mapped movies and tv-shows, indexed by genre and for search. A new snapshot is built every
+ * time either content type is mapped, so readers holding a snapshot always see a consistent state of both types and
+ * can use its indexes directly without copying them.
+ * @param generation Number of the snapshot, increased by one for every new snapshot.
+ * @param builtAt The time the snapshot was built.
+ * @param movies Genre index of all movies.
+ * @param tvShows Genre index of all tv-shows.
+ * @param movieSearch Search index of all movies, with the same positions as the genre index of the movies.
+ * @param tvShowSearch Search index of all tv-shows, with the same positions as the genre index of the tv-shows.
+ */
+public record CatalogSnapshot(long generation, Instant builtAt, GenreIndex movies, GenreIndex tvShows,
+                              SearchIndex movieSearch, SearchIndex tvShowSearch) {
+    private static final CatalogSnapshot EMPTY = new CatalogSnapshot(0, Instant.EPOCH, GenreIndex.empty(), GenreIndex.empty(),
+            SearchIndex.empty(), SearchIndex.empty());
+
+    /**
+     * Getter for the snapshot of a catalog without any content.
+     * @return Returns the empty snapshot.
+     */
+    public static CatalogSnapshot empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds the next snapshot, with new movies and the tv-shows of this snapshot.
+     * @param movies Genre index of the new movies.
+     * @param movieSearch Search index of the new movies.
+     * @return Returns the new snapshot.
+     */
+    public CatalogSnapshot withMovies(GenreIndex movies, SearchIndex movieSearch) {
+        return new CatalogSnapshot(generation + 1, Instant.now(), movies, tvShows, movieSearch, tvShowSearch);
+    }
+
+    /**
+     * Builds the next snapshot, with new tv-shows and the movies of this snapshot.
+     * @param tvShows Genre index of the new tv-shows.
+     * @param tvShowSearch Search index of the new tv-shows.
+     * @return Returns the new snapshot.
+     */
+    public CatalogSnapshot withTvShows(GenreIndex tvShows, SearchIndex tvShowSearch) {
+        return new CatalogSnapshot(generation + 1, Instant.now(), movies, tvShows, movieSearch, tvShowSearch);
+    }
+}
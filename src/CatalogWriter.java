@@ -0,0 +1,151 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class that writes Content as tab separated values or as JSON, one title at a time, so a catalog of any size can be
+ * written straight to a file or to standard output without being built up in memory first.
+ */
+public class CatalogWriter {
+    private final Writer out;
+
+    /**
+     * Constructor that sets the writer the catalog is written to.
+     * @param out The writer. It is not closed by this class.
+     */
+    public CatalogWriter(Writer out) {
+        this.out = out;
+    }
+
+    /**
+     * Writes Content as tab separated values, with a header row. Genres, cast and regional release dates are separated
+     * by commas within their column, and tabs and line breaks within values are replaced by spaces.
+     * @param data The Content to write.
+     * @throws IOException If writing failed.
+     */
+    public void writeTsv(List<Content> data) throws IOException {
+        out.write("type\ttitle\treleaseDate\tgenres\ttopCast\tregionalReleaseDates\timdbUrl\tposterUrl\n");
+        for (Content c : data) {
+            out.write(tsv(c.type()));
+            out.write('\t');
+            out.write(tsv(c.title()));
+            out.write('\t');
+            out.write(c.releaseDate() == null ? "" : c.releaseDate().toString());
+            out.write('\t');
+            out.write(tsv(c.genres() == null ? "" : String.join(",", c.genres())));
+            out.write('\t');
+            out.write(tsv(c.topCast() == null ? "" : String.join(",", c.topCast())));
+            out.write('\t');
+            out.write(tsv(c.getRegionalReleaseDates()));
+            out.write('\t');
+            out.write(tsv(c.imdbUrl()));
+            out.write('\t');
+            out.write(tsv(c.posterUrl()));
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    /**
+     * Writes Content as a JSON array with one object per title.
+     * @param data The Content to write.
+     * @throws IOException If writing failed.
+     */
+    public void writeJson(List<Content> data) throws IOException {
+        out.write('[');
+        boolean first = true;
+        for (Content c : data) {
+            out.write(first ? "\n  {" : ",\n  {");
+            first = false;
+            out.write("\"type\": ");
+            writeJsonString(c.type());
+            out.write(", \"title\": ");
+            writeJsonString(c.title());
+            out.write(", \"releaseDate\": ");
+            writeJsonString(c.releaseDate() == null ? null : c.releaseDate().toString());
+            out.write(", \"genres\": ");
+            writeJsonArray(c.genres());
+            out.write(", \"topCast\": ");
+            writeJsonArray(c.topCast());
+            out.write(", \"regionalReleaseDates\": {");
+            boolean firstRegion = true;
+            for (Map.Entry<String, LocalDate> region : c.regionalReleaseDates().entrySet()) {
+                out.write(firstRegion ? "" : ", ");
+                firstRegion = false;
+                writeJsonString(region.getKey());
+                out.write(": ");
+                writeJsonString(region.getValue() == null ? null : region.getValue().toString());
+            }
+            out.write("}, \"imdbUrl\": ");
+            writeJsonString(c.imdbUrl());
+            out.write(", \"posterUrl\": ");
+            writeJsonString(c.posterUrl());
+            out.write('}');
+        }
+        out.write(first ? "]\n" : "\n]\n");
+        out.flush();
+    }
+
+    /**
+     * Makes a value safe for a tab separated column.
+     * @param value The value, or null.
+     * @return Returns the value with tabs and line breaks replaced by spaces, or an empty string if null.
+     */
+    private static String tsv(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+
+    /**
+     * Writes an array of strings as a JSON array.
+     * @param values The strings, or null for an empty array.
+     * @throws IOException If writing failed.
+     */
+    private void writeJsonArray(String[] values) throws IOException {
+        out.write('[');
+        if (values != null) {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    out.write(", ");
+                }
+                writeJsonString(values[i]);
+            }
+        }
+        out.write(']');
+    }
+
+    /**
+     * Writes a string as a quoted and escaped JSON string.
+     * @param value The string, or null to write null.
+     * @throws IOException If writing failed.
+     */
+    private void writeJsonString(String value) throws IOException {
+        if (value == null) {
+            out.write("null");
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            switch (ch) {
+                case '"' -> out.write("\\\"");
+                case '\\' -> out.write("\\\\");
+                case '\n' -> out.write("\\n");
+                case '\r' -> out.write("\\r");
+                case '\t' -> out.write("\\t");
+                default -> {
+                    if (ch < 0x20) {
+                        out.write(String.format("\\u%04x", (int) ch));
+                    } else {
+                        out.write(ch);
+                    }
+                }
+            }
+        }
+        out.write('"');
+    }
+}
@@ -1,21 +1,182 @@
-import javafx.scene.image.Image;
 import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
- * Record for creating Content-objects (for the purposes of this implementation: movies and tv-shows).
- * @param poster A poster belonging to the specific Content.
- * @param title Name of the Content.
- * @param genres All genres the Content belongs in.
- * @param topCast The top cast related to the Content.
- * @param releaseDate The scheduled date of release.
- * @param type The specific type of Content (in this case, movie or tv-show).
+ * Class for creating Content-objects (for the purposes of this implementation: movies and tv-shows). Genre names,
+ * cast names and type are shared between all Content through {@link StringPool}, and the formatted text of genres and
+ * top cast is built once, when the Content is created, and kept in private fields, so it always matches the genres and
+ * top cast. Content scraped in more than one region keeps the release date of each region, and its release date is the
+ * earliest of them. Content is immutable, and its attributes are read through accessors named after them.
  */
-public record Content(Image poster, String title, String[] genres, String[] topCast, LocalDate releaseDate, String type, String imdbUrl) {
+public final class Content {
+    private static final Pattern TITLE_ID = Pattern.compile("tt\\d+");
 
+    private final String posterUrl;
+    private final String title;
+    private final String[] genres;
+    private final String[] topCast;
+    private final LocalDate releaseDate;
+    private final String type;
+    private final String imdbUrl;
+    private final Map<String, LocalDate> regionalReleaseDates;
+    private final String genresText;
+    private final String topCastText;
 
-    public Image getPoster() {
-        return poster;
+    /**
+     * Constructor that sets all attributes and builds the formatted text of genres and top cast. The genres and top cast
+     * are copied, with repeated strings replaced by their shared instance, and the regional release dates are kept in
+     * order of region code.
+     * @param posterUrl URL to the poster belonging to the specific Content, or null if it has none.
+     * @param title Name of the Content.
+     * @param genres All genres the Content belongs in.
+     * @param topCast The top cast related to the Content.
+     * @param releaseDate The scheduled date of release.
+     * @param type The specific type of Content (in this case, movie or tv-show).
+     * @param imdbUrl URL to the IMDB page of the Content.
+     * @param regionalReleaseDates The scheduled date of release of each region the Content was scraped in, by region
+     *                             code.
+     */
+    public Content(String posterUrl, String title, String[] genres, String[] topCast, LocalDate releaseDate, String type,
+                   String imdbUrl, Map<String, LocalDate> regionalReleaseDates) {
+        this.posterUrl = posterUrl;
+        this.title = title;
+        this.genres = StringPool.internAll(genres.clone());
+        this.topCast = StringPool.internAll(topCast.clone());
+        this.releaseDate = releaseDate;
+        this.type = StringPool.intern(type);
+        this.imdbUrl = imdbUrl;
+        if (regionalReleaseDates.size() <= 1) {
+            this.regionalReleaseDates = Map.copyOf(regionalReleaseDates);
+        } else {
+            this.regionalReleaseDates = Collections.unmodifiableMap(new TreeMap<>(regionalReleaseDates));
+        }
+        this.genresText = formatGenres(this.genres);
+        this.topCastText = formatTopCast(this.topCast);
+    }
+
+    /**
+     * Constructor that builds Content from another Content with new attributes, reusing its formatted text.
+     * @param content The Content whose genres and top cast are kept.
+     * @param releaseDate The scheduled date of release.
+     * @param regionalReleaseDates The scheduled date of release of each region, by region code.
+     */
+    private Content(Content content, LocalDate releaseDate, Map<String, LocalDate> regionalReleaseDates) {
+        this.posterUrl = content.posterUrl;
+        this.title = content.title;
+        this.genres = content.genres;
+        this.topCast = content.topCast;
+        this.releaseDate = releaseDate;
+        this.type = content.type;
+        this.imdbUrl = content.imdbUrl;
+        this.regionalReleaseDates = Collections.unmodifiableMap(new TreeMap<>(regionalReleaseDates));
+        this.genresText = content.genresText;
+        this.topCastText = content.topCastText;
+    }
+
+    /**
+     * Constructor for Content scraped in a single region, that builds the formatted text of genres and top cast from
+     * the given attributes.
+     * @param posterUrl URL to the poster belonging to the specific Content, or null if it has none.
+     * @param title Name of the Content.
+     * @param genres All genres the Content belongs in.
+     * @param topCast The top cast related to the Content.
+     * @param releaseDate The scheduled date of release in the region.
+     * @param type The specific type of Content (in this case, movie or tv-show).
+     * @param imdbUrl URL to the IMDB page of the Content.
+     * @param region Code of the region the Content was scraped in, for example "SE".
+     */
+    public Content(String posterUrl, String title, String[] genres, String[] topCast, LocalDate releaseDate, String type,
+                   String imdbUrl, String region) {
+        this(posterUrl, title, genres, topCast, releaseDate, type, imdbUrl, Map.of(StringPool.intern(region), releaseDate));
+    }
+
+    /**
+     * Constructor that builds the formatted text of genres and top cast from the given attributes.
+     * @param posterUrl URL to the poster belonging to the specific Content, or null if it has none.
+     * @param title Name of the Content.
+     * @param genres All genres the Content belongs in.
+     * @param topCast The top cast related to the Content.
+     * @param releaseDate The scheduled date of release.
+     * @param type The specific type of Content (in this case, movie or tv-show).
+     * @param imdbUrl URL to the IMDB page of the Content.
+     */
+    public Content(String posterUrl, String title, String[] genres, String[] topCast, LocalDate releaseDate, String type,
+                   String imdbUrl) {
+        this(posterUrl, title, genres, topCast, releaseDate, type, imdbUrl, Map.of());
+    }
+
+    /**
+     * Getter for the URL to the poster.
+     * @return Returns the URL, or null if the Content has no poster.
+     */
+    public String posterUrl() {
+        return posterUrl;
+    }
+
+    /**
+     * Getter for the name of the Content.
+     * @return Returns the name.
+     */
+    public String title() {
+        return title;
+    }
+
+    /**
+     * Getter for the genres. The array is shared and must not be changed.
+     * @return Returns all genres the Content belongs in.
+     */
+    public String[] genres() {
+        return genres;
+    }
+
+    /**
+     * Getter for the top cast. The array is shared and must not be changed.
+     * @return Returns the top cast related to the Content.
+     */
+    public String[] topCast() {
+        return topCast;
+    }
+
+    /**
+     * Getter for the scheduled date of release, which is the earliest of all regions.
+     * @return Returns the date.
+     */
+    public LocalDate releaseDate() {
+        return releaseDate;
+    }
+
+    /**
+     * Getter for the type of Content.
+     * @return Returns the type (movie or tv-show).
+     */
+    public String type() {
+        return type;
+    }
+
+    /**
+     * Getter for the URL to the IMDB page.
+     * @return Returns the URL.
+     */
+    public String imdbUrl() {
+        return imdbUrl;
+    }
+
+    /**
+     * Getter for the scheduled date of release of each region the Content was scraped in.
+     * @return Returns an unmodifiable map of the dates, by region code in order of region code.
+     */
+    public Map<String, LocalDate> regionalReleaseDates() {
+        return regionalReleaseDates;
+    }
+
+    public String getPosterUrl() {
+        return posterUrl;
     }
 
     public String getTitle() {
@@ -27,18 +188,7 @@ public record Content(Image poster, String title, String[] genres, String[] topC
      * @return returns the formatted string of genres.
      */
     public String getGenres() {
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < genres.length; i++) {
-            sb.append(genres[i]);
-            if (i != genres.length-1) {
-                sb.append(", ");
-            }
-        }
-        if (sb.isEmpty()) {
-            return "Not specified";
-        } else {
-            return sb.toString();
-        }
+        return genresText;
     }
 
     /**
@@ -46,22 +196,94 @@ public record Content(Image poster, String title, String[] genres, String[] topC
      * @return returns the formatted string of top cast.
      */
     public String getTopCast() {
+        return topCastText;
+    }
+
+    /**
+     * Formats genres as text.
+     * @param genres The genres.
+     * @return Returns the genres separated by commas, or a notice if there are none.
+     */
+    private static String formatGenres(String[] genres) {
+        String text = String.join(", ", genres);
+        return text.isEmpty() ? "Not specified" : StringPool.intern(text);
+    }
+
+    /**
+     * Formats top cast as text.
+     * @param topCast The top cast.
+     * @return Returns the top cast separated by commas and line breaks, or a notice if there is none.
+     */
+    private static String formatTopCast(String[] topCast) {
+        String text = String.join(", " + "\n", topCast);
+        return text.isEmpty() ? "None specified" : text;
+    }
+
+    public String getReleaseDate() {
+        return releaseDate.toString();
+    }
+
+    /**
+     * A specific formatting of a Contents release date in each region.
+     * @return Returns the region codes and release dates, separated by commas, in order of region code.
+     */
+    public String getRegionalReleaseDates() {
         StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < topCast.length; i++) {
-            sb.append(topCast[i]);
-            if (i != topCast.length-1) {
-                sb.append(", " + "\n");
+        for (Map.Entry<String, LocalDate> regionDate : regionalReleaseDates.entrySet()) {
+            if (sb.length() > 0) {
+                sb.append(", ");
             }
+            sb.append(regionDate.getKey()).append(' ').append(regionDate.getValue());
         }
-        if (sb.isEmpty()) {
-            return "None specified";
-        } else {
-            return sb.toString();
+        return sb.toString();
+    }
+
+    /**
+     * Getter for the IMDB id of the Content, which is the same for the Content in every region.
+     * @return Returns the id (for example "tt0111161"), or the IMDB URL if it holds no id.
+     */
+    public String getTitleId() {
+        return titleIdOf(imdbUrl);
+    }
+
+    /**
+     * Finds the IMDB id in an IMDB URL, which stays the same when the tracking query of the URL differs between pages.
+     * @param imdbUrl URL to the IMDB page of a Content, or an IMDB id.
+     * @return Returns the id (for example "tt0111161"), or the URL if it holds no id.
+     */
+    public static String titleIdOf(String imdbUrl) {
+        if (imdbUrl == null) {
+            return null;
         }
+        Matcher matcher = TITLE_ID.matcher(imdbUrl);
+        return matcher.find() ? matcher.group() : imdbUrl;
     }
 
-    public String getReleaseDate() {
-        return releaseDate.toString();
+    /**
+     * Merges the regional release dates of the same Content scraped in another region into this Content. All other
+     * attributes are kept from this Content, and where both have a date for the same region the earliest is kept.
+     * @param other The same Content, scraped in another region.
+     * @return Returns a new Content with the release dates of both, or this Content if the other adds nothing.
+     */
+    public Content mergeRegions(Content other) {
+        Map<String, LocalDate> merged = new TreeMap<>(regionalReleaseDates);
+        boolean changed = false;
+        for (Map.Entry<String, LocalDate> regionDate : other.regionalReleaseDates.entrySet()) {
+            LocalDate current = merged.get(regionDate.getKey());
+            if (current == null || regionDate.getValue().isBefore(current)) {
+                merged.put(regionDate.getKey(), regionDate.getValue());
+                changed = true;
+            }
+        }
+        LocalDate earliest = releaseDate;
+        if (other.releaseDate != null && (earliest == null || other.releaseDate.isBefore(earliest))) {
+            earliest = other.releaseDate;
+            changed = true;
+        }
+        if (!changed) {
+            return this;
+        }
+        return new Content(this, earliest, merged);
     }
 
     /**
@@ -69,9 +291,59 @@ public record Content(Image poster, String title, String[] genres, String[] topC
      * @return Returns a string with main attributes.
      */
     public String getMainAttributes() {
+        if (regionalReleaseDates.size() > 1) {
+            return title + " is a " + type.toLowerCase() + " that is to be released " + releaseDate + " ("
+                    + getRegionalReleaseDates() + ").";
+        }
         return title + " is a " + type.toLowerCase() + " that is to be released " + releaseDate + ".";
     }
 
+    /**
+     * Compares all attributes of two Contents, including the contents of the genre and top cast arrays.
+     * @param other Content to compare with.
+     * @return Returns true if both Contents hold the same data.
+     */
+    public boolean hasSameData(Content other) {
+        return other != null
+                && Objects.equals(posterUrl, other.posterUrl)
+                && Objects.equals(title, other.title)
+                && Arrays.equals(genres, other.genres)
+                && Arrays.equals(topCast, other.topCast)
+                && Objects.equals(releaseDate, other.releaseDate)
+                && Objects.equals(type, other.type)
+                && Objects.equals(imdbUrl, other.imdbUrl)
+                && Objects.equals(regionalReleaseDates, other.regionalReleaseDates);
+    }
+
+    /**
+     * Compares Content attribute by attribute, where genres and top cast are compared by instance, like the Content was
+     * compared before it was a class. {@link #hasSameData} also compares the contents of the arrays.
+     * @param o Object to compare with.
+     * @return Returns true if the object is Content with the same attributes.
+     */
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof Content other
+                && Objects.equals(posterUrl, other.posterUrl)
+                && Objects.equals(title, other.title)
+                && genres == other.genres
+                && topCast == other.topCast
+                && Objects.equals(releaseDate, other.releaseDate)
+                && Objects.equals(type, other.type)
+                && Objects.equals(imdbUrl, other.imdbUrl)
+                && regionalReleaseDates.equals(other.regionalReleaseDates);
+    }
+
+    /**
+     * Computes a hash code consistent with {@link #equals}.
+     * @return Returns the hash code.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(posterUrl, title, System.identityHashCode(genres), System.identityHashCode(topCast),
+                releaseDate, type, imdbUrl, regionalReleaseDates);
+    }
+
     @Override
     public String toString() {
         return "Title: " + title + ",  Genres: " + Arrays.toString(genres) + ", Top cast: " + Arrays.toString(topCast) + ", Release date: " + releaseDate.toString() + ", Type: " + type + ".";
@@ -0,0 +1,35 @@
+/**
+ * Record for the details of a Content that are only found on its own IMDB page. Director and cast names are shared
+ * between all details through {@link StringPool}.
+ * @param runtime The runtime as written on the page (for example "2h 6m"), or an empty string if it isn't known.
+ * @param plot Summary of the plot, or an empty string if it isn't known.
+ * @param directors All directors of the Content.
+ * @param fullCast The cast listed on the page of the Content.
+ */
+public record ContentDetails(String runtime, String plot, String[] directors, String[] fullCast) {
+
+    /**
+     * Canonical constructor that copies the directors and cast, with repeated strings replaced by their shared
+     * instance, so the arrays of the caller are left as they are.
+     */
+    public ContentDetails {
+        directors = StringPool.internAll(directors.clone());
+        fullCast = StringPool.internAll(fullCast.clone());
+    }
+
+    /**
+     * Getter for the directors as text.
+     * @return Returns the directors, separated by commas.
+     */
+    public String getDirectors() {
+        return String.join(", ", directors);
+    }
+
+    /**
+     * Getter for the full cast as text.
+     * @return Returns the cast, separated by commas.
+     */
+    public String getFullCast() {
+        return String.join(", ", fullCast);
+    }
+}
@@ -0,0 +1,188 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Class that computes the difference between two scrapes of the same content, keyed by the IMDB id of each Content,
+ * as the tracking query of the IMDB URL differs between pages.
+ * Content that is unchanged keeps its previous instance, so it can be reused instead of replaced.
+ */
+public final class ContentDiff {
+    private final List<Content> reconciled;
+    private final List<Content> added;
+    private final List<Content> removed;
+    private final List<Update> updated;
+
+    /**
+     * Record for Content that exists in both scrapes but has changed.
+     * @param previous The Content from the previous scrape.
+     * @param current The Content from the new scrape.
+     */
+    public record Update(Content previous, Content current) {
+    }
+
+    /**
+     * Constructor that sets the computed difference.
+     * @param reconciled The new Content, with unchanged Content replaced by its previous instance.
+     * @param added Content that only exists in the new scrape.
+     * @param removed Content that only exists in the previous scrape.
+     * @param updated Content that has changed.
+     */
+    private ContentDiff(List<Content> reconciled, List<Content> added, List<Content> removed, List<Update> updated) {
+        this.reconciled = reconciled;
+        this.added = added;
+        this.removed = removed;
+        this.updated = updated;
+    }
+
+    /**
+     * Computes the difference between two scrapes.
+     * @param previous Content of the previous scrape, or null if there was none.
+     * @param current Content of the new scrape.
+     * @return Returns the difference.
+     */
+    public static ContentDiff compute(List<Content> previous, List<Content> current) {
+        Map<String, LinkedList<Content>> previousById = new HashMap<>();
+        if (previous != null) {
+            for (Content c : previous) {
+                previousById.computeIfAbsent(c.getTitleId(), key -> new LinkedList<>()).add(c);
+            }
+        }
+
+        List<Content> reconciled = new ArrayList<>(current.size());
+        List<Content> added = new ArrayList<>();
+        List<Update> updated = new ArrayList<>();
+        for (Content c : current) {
+            LinkedList<Content> matches = previousById.get(c.getTitleId());
+            Content match = matches == null ? null : matches.poll();
+            if (match == null) {
+                added.add(c);
+                reconciled.add(c);
+            } else if (match.hasSameData(c)) {
+                reconciled.add(match);
+            } else {
+                updated.add(new Update(match, c));
+                reconciled.add(c);
+            }
+        }
+
+        List<Content> removed = new ArrayList<>();
+        for (LinkedList<Content> unmatched : previousById.values()) {
+            removed.addAll(unmatched);
+        }
+        return new ContentDiff(reconciled, added, removed, updated);
+    }
+
+    /**
+     * Applies the difference to a list holding the previous Content, for example the items of a TableView. Only the
+     * removed, updated and added Content is touched, so unchanged items stay where they are. Updated Content is set in
+     * place, so a selected row stays selected. Added Content is inserted after the Content it follows in the new
+     * scrape, with every run of consecutive added Content inserted at once.
+     * @param target The list to update.
+     */
+    public void applyTo(List<Content> target) {
+        if (!removed.isEmpty()) {
+            Set<Content> removedSet = Collections.newSetFromMap(new IdentityHashMap<>());
+            removedSet.addAll(removed);
+            target.removeIf(removedSet::contains);
+        }
+        if (updated.isEmpty() && added.isEmpty()) {
+            return;
+        }
+
+        Map<Content, Integer> positions = new IdentityHashMap<>();
+        for (int i = 0; i < target.size(); i++) {
+            positions.put(target.get(i), i);
+        }
+        for (Update update : updated) {
+            Integer position = positions.remove(update.previous());
+            if (position != null) {
+                target.set(position, update.current());
+                positions.put(update.current(), position);
+            }
+        }
+
+        if (!added.isEmpty()) {
+            Set<Content> addedSet = Collections.newSetFromMap(new IdentityHashMap<>());
+            addedSet.addAll(added);
+            List<Insertion> insertions = new ArrayList<>();
+            Content predecessor = null;
+            List<Content> run = null;
+            for (Content c : reconciled) {
+                if (!addedSet.contains(c)) {
+                    predecessor = c;
+                    run = null;
+                } else {
+                    if (run == null) {
+                        Integer position = predecessor == null ? null : positions.get(predecessor);
+                        run = new ArrayList<>();
+                        insertions.add(new Insertion(position == null ? 0 : position + 1, run));
+                    }
+                    run.add(c);
+                }
+            }
+            //Inserted from the end, so the positions of the runs before are still valid. The sort is stable, so runs at
+            //the same position are inserted in reverse and end up in the order of the new scrape
+            Collections.reverse(insertions);
+            insertions.sort(Comparator.comparingInt(Insertion::index).reversed());
+            for (Insertion insertion : insertions) {
+                target.addAll(insertion.index(), insertion.run());
+            }
+        }
+    }
+
+    /**
+     * Record for a run of consecutive added Content and the position it is inserted at.
+     * @param index Position in the list before any run is inserted.
+     * @param run The added Content.
+     */
+    private record Insertion(int index, List<Content> run) {
+    }
+
+    /**
+     * Getter for the new Content, in the order of the new scrape, with unchanged Content replaced by its previous
+     * instance.
+     * @return Returns the reconciled Content.
+     */
+    public List<Content> getReconciled() {
+        return reconciled;
+    }
+
+    /**
+     * Getter for Content that only exists in the new scrape.
+     * @return Returns the added Content.
+     */
+    public List<Content> getAdded() {
+        return added;
+    }
+
+    /**
+     * Getter for Content that only exists in the previous scrape.
+     * @return Returns the removed Content.
+     */
+    public List<Content> getRemoved() {
+        return removed;
+    }
+
+    /**
+     * Getter for Content that exists in both scrapes but has changed.
+     * @return Returns the updated Content.
+     */
+    public List<Update> getUpdated() {
+        return updated;
+    }
+
+    /**
+     * Checks whether anything differs between the two scrapes.
+     * @return Returns true if nothing was added, removed or updated.
+     */
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && updated.isEmpty();
+    }
+}
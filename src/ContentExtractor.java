@@ -0,0 +1,180 @@
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.select.Elements;
+import org.jsoup.select.NodeTraversor;
+import org.jsoup.select.NodeVisitor;
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Class that extracts Content from a parsed IMDB calendar page, using the precompiled selectors of
+ * {@link ScrapeSelector}. Every summary item is walked a single time, picking up title, IMDB URL, genres and top cast
+ * on the way.
+ */
+public class ContentExtractor {
+    private static final String IMDB_URL = "https://www.imdb.com";
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MMM dd, yyyy", Locale.ENGLISH);
+    private static final String currentYear;
+    private static final String nextYear;
+    private static final String yearAfterNext;
+
+    private final String contentType;
+    private final String region;
+
+    static {
+        Year year = Year.now();
+        DateTimeFormatter yearFormatter = DateTimeFormatter.ofPattern("yyyy");
+        currentYear = year.format(yearFormatter);
+        nextYear = year.plusYears(1).format(yearFormatter);
+        yearAfterNext = year.plusYears(2).format(yearFormatter);
+    }
+
+    /**
+     * Record for the fields of a single summary item.
+     * @param title Name of the Content.
+     * @param imdbUrl URL to the IMDB page of the Content.
+     * @param genres All genres of the Content.
+     * @param topCast The top cast of the Content.
+     */
+    private record Summary(String title, String imdbUrl, String[] genres, String[] topCast) {
+    }
+
+    /**
+     * Constructor that sets the type and region of Content being extracted.
+     * @param contentType The type of Content (movie or tv-show).
+     * @param region Code of the region of the calendar page, for example "SE".
+     */
+    public ContentExtractor(String contentType, String region) {
+        this.contentType = contentType;
+        this.region = region;
+    }
+
+    /**
+     * Selects all Article-elements of a calendar page, where one Article-element contains all Content to be released
+     * a given date.
+     * @param document The parsed calendar page.
+     * @return Returns the Article-elements.
+     */
+    public Elements selectArticles(Document document) {
+        return ScrapeSelector.ARTICLE.selectIn(document);
+    }
+
+    /**
+     * Extracts all Content of an Article-element. Only dates in the current, next, and year after next are included.
+     * @param articleElement The Article-element.
+     * @return Returns the extracted Content.
+     */
+    public List<Content> extractArticle(Element articleElement) {
+        List<Content> data = new ArrayList<>();
+        List<Summary> summaries = null;
+        Elements posterElements = null;
+
+        for (Element dateElement : ScrapeSelector.RELEASE_DATE.selectIn(articleElement)) {
+            String dateString = dateElement.text();
+            if (!(dateString.contains(yearAfterNext) || dateString.contains(nextYear) || dateString.contains(currentYear))) {
+                continue;
+            }
+            LocalDate releaseDate = LocalDate.parse(dateString, DATE_FORMATTER);
+
+            if (summaries == null) {
+                posterElements = ScrapeSelector.POSTER.selectIn(articleElement);
+                summaries = new ArrayList<>();
+                for (Element summaryElement : ScrapeSelector.SUMMARY.selectIn(articleElement)) {
+                    summaries.add(extractSummary(summaryElement));
+                }
+            }
+
+            //Posters are listed in the same order as the summaries, Content without own poster gets none
+            int posterIndex = 0;
+            for (Summary summary : summaries) {
+                String posterUrl = null;
+                if (posterIndex < posterElements.size()) {
+                    posterUrl = posterElements.get(posterIndex).attr("src");
+                    posterIndex++;
+                }
+                data.add(new Content(posterUrl, summary.title(), summary.genres(), summary.topCast(), releaseDate,
+                        contentType, summary.imdbUrl(), region));
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Walks a summary item once and collects its title, IMDB URL, genres and top cast.
+     * @param summaryElement The summary item.
+     * @return Returns the collected fields.
+     */
+    private Summary extractSummary(Element summaryElement) {
+        SummaryVisitor visitor = new SummaryVisitor(summaryElement);
+        NodeTraversor.traverse(visitor, summaryElement);
+        return new Summary(visitor.title, IMDB_URL + visitor.href,
+                visitor.genres.toArray(new String[0]), visitor.topCast.toArray(new String[0]));
+    }
+
+    /**
+     * Visitor that collects the fields of a summary item while it is walked.
+     */
+    private static class SummaryVisitor implements NodeVisitor {
+        private final Element root;
+        private final List<String> genres = new ArrayList<>();
+        private final List<String> topCast = new ArrayList<>();
+        private String title = "";
+        private String href = "";
+        private boolean titleFound = false;
+        private Element currentList;
+        private List<String> currentValues;
+
+        /**
+         * Constructor that sets the summary item being walked.
+         * @param root The summary item.
+         */
+        SummaryVisitor(Element root) {
+            this.root = root;
+        }
+
+        /**
+         * Called when an element is entered, checks what the element holds.
+         * @param node The entered node.
+         * @param depth Depth of the node.
+         */
+        @Override
+        public void head(Node node, int depth) {
+            if (!(node instanceof Element element)) {
+                return;
+            }
+            if (currentList != null) {
+                if (element.normalName().equals("li")) {
+                    currentValues.add(element.text());
+                }
+            } else if (!titleFound && ScrapeSelector.TITLE_LINK.matches(root, element)) {
+                title = element.text();
+                href = element.attr("href");
+                titleFound = true;
+            } else if (ScrapeSelector.GENRE_LIST.matches(root, element)) {
+                currentList = element;
+                currentValues = genres;
+            } else if (ScrapeSelector.TOP_CAST_LIST.matches(root, element)) {
+                currentList = element;
+                currentValues = topCast;
+            }
+        }
+
+        /**
+         * Called when an element is left, ends collecting list items when leaving a list.
+         * @param node The left node.
+         * @param depth Depth of the node.
+         */
+        @Override
+        public void tail(Node node, int depth) {
+            if (node == currentList) {
+                currentList = null;
+                currentValues = null;
+            }
+        }
+    }
+}
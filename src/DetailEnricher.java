@@ -0,0 +1,179 @@
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * Class that enriches Content with the details found on its own IMDB page, in the background. Pages are fetched
+ * through the bounded {@link PageCache#details()} cache by the shared {@link BackgroundExecutor}, with at most a set
+ * number of fetches running at once in total and per host. A fetch only starts once a permit is free, so queued pages
+ * never hold a thread while they wait. Details are kept in the {@link DetailStore}, which is loaded first, so Content
+ * enriched in an earlier run isn't fetched again and an interrupted enrichment resumes where it stopped. Enriched
+ * Content is reported to the JavaFX application thread in batches, so the GUI can fill in the details progressively.
+ */
+public class DetailEnricher {
+    private static final int DEFAULT_CONCURRENCY = 4;
+    private static final int DEFAULT_PER_HOST = 2;
+
+    private final DetailStore store;
+    private final PageCache pageCache;
+    private final DetailExtractor extractor = new DetailExtractor();
+    private final FxBatchCoalescer<String> coalescer;
+    private final Semaphore permits;
+    private final int perHost;
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+    private final Set<String> queue = new LinkedHashSet<>();
+    private final Set<String> known = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelled = false;
+
+    /**
+     * Constructor that sets up an enricher using the shared store and cache of title pages, with limits from {@link Settings}.
+     * Must be called on the JavaFX application thread.
+     * @param onEnriched Callback run on the JavaFX application thread with the IMDB URLs of newly enriched Content.
+     */
+    public DetailEnricher(Consumer<List<String>> onEnriched) {
+        this(DetailStore.shared(), PageCache.details(), onEnriched,
+                Math.max(1, Settings.getInt(Settings.ENRICHMENT_CONCURRENCY, DEFAULT_CONCURRENCY)),
+                Math.max(1, Settings.getInt(Settings.ENRICHMENT_PER_HOST, DEFAULT_PER_HOST)));
+    }
+
+    /**
+     * Constructor that sets up an enricher. Must be called on the JavaFX application thread.
+     * @param store Store the details are kept in.
+     * @param pageCache Cache the pages are fetched through.
+     * @param onEnriched Callback run on the JavaFX application thread with the IMDB URLs of newly enriched Content.
+     * @param concurrency Largest number of pages fetched at once.
+     * @param perHost Largest number of pages fetched at once from the same host.
+     */
+    public DetailEnricher(DetailStore store, PageCache pageCache, Consumer<List<String>> onEnriched,
+                          int concurrency, int perHost) {
+        this.store = store;
+        this.pageCache = pageCache;
+        this.coalescer = new FxBatchCoalescer<>(onEnriched);
+        this.permits = new Semaphore(concurrency);
+        this.perHost = perHost;
+    }
+
+    /**
+     * Queues Content to be enriched, skipping Content that is already enriched or queued. Must be called on the
+     * JavaFX application thread.
+     * @param data Content to be enriched.
+     */
+    public void enrich(Collection<Content> data) {
+        if (cancelled) {
+            return;
+        }
+        coalescer.start();
+        List<String> urls = new ArrayList<>(data.size());
+        for (Content c : data) {
+            if (c.imdbUrl() != null) {
+                urls.add(c.imdbUrl());
+            }
+        }
+        BackgroundExecutor.shared().execute(() -> {
+            store.load();
+            List<String> alreadyEnriched = new ArrayList<>();
+            synchronized (this) {
+                for (String url : urls) {
+                    if (store.contains(url)) {
+                        alreadyEnriched.add(url);
+                    } else if (known.add(url)) {
+                        queue.add(url);
+                    }
+                }
+            }
+            coalescer.publish(alreadyEnriched);
+            startFetches();
+        });
+    }
+
+    /**
+     * Stops the enrichment. Fetches already running are finished, but nothing more is fetched. Must be called on the
+     * JavaFX application thread.
+     */
+    public void cancel() {
+        cancelled = true;
+        synchronized (this) {
+            queue.clear();
+        }
+        coalescer.cancel();
+    }
+
+    /**
+     * Starts fetching queued pages for as long as there are free permits, skipping pages whose host has no free
+     * permit.
+     */
+    private void startFetches() {
+        List<String> started = new ArrayList<>();
+        synchronized (this) {
+            Iterator<String> iterator = queue.iterator();
+            while (!cancelled && iterator.hasNext() && permits.tryAcquire()) {
+                String url = iterator.next();
+                if (hostPermits(url).tryAcquire()) {
+                    iterator.remove();
+                    started.add(url);
+                } else {
+                    permits.release();
+                }
+            }
+        }
+        for (String url : started) {
+            BackgroundExecutor.shared().execute(() -> fetch(url));
+        }
+    }
+
+    /**
+     * Fetches and extracts the details of a single Content, then releases its permits and starts the next fetches.
+     * @param url URL to the IMDB page of the Content.
+     */
+    private void fetch(String url) {
+        boolean enriched = false;
+        try {
+            if (!cancelled) {
+                PageCache.Page page = pageCache.fetch(url);
+                Document document = Jsoup.parse(new ByteArrayInputStream(page.body()), page.charset(), url);
+                store.put(url, extractor.extract(document));
+                coalescer.publish(List.of(url));
+                enriched = true;
+            }
+        } catch (IOException e) {
+            System.out.println("Error fetching details: " + e.getMessage());
+        } catch (Exception e) {
+            System.out.println("Unexpected exception: " + e.getMessage());
+        } finally {
+            if (!enriched) {
+                //Lets the Content be queued again by a later enrichment
+                known.remove(url);
+            }
+            hostPermits(url).release();
+            permits.release();
+            startFetches();
+        }
+    }
+
+    /**
+     * Getter for the permits of the host of a URL.
+     * @param url The URL.
+     * @return Returns the permits shared by all URLs of the same host.
+     */
+    private Semaphore hostPermits(String url) {
+        String host;
+        try {
+            host = String.valueOf(URI.create(url).getHost());
+        } catch (IllegalArgumentException e) {
+            host = "";
+        }
+        return hostPermits.computeIfAbsent(host, key -> new Semaphore(perHost));
+    }
+}
@@ -0,0 +1,52 @@
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Class that extracts the details of a Content from its parsed IMDB page, using the precompiled selectors of
+ * {@link ScrapeSelector}.
+ */
+public class DetailExtractor {
+
+    /**
+     * Extracts the details of a Content.
+     * @param document The parsed IMDB page of the Content.
+     * @return Returns the details, with empty values for everything that isn't found on the page.
+     */
+    public ContentDetails extract(Document document) {
+        return new ContentDetails(firstText(document, ScrapeSelector.DETAIL_RUNTIME),
+                firstText(document, ScrapeSelector.DETAIL_PLOT),
+                allTexts(document, ScrapeSelector.DETAIL_DIRECTOR),
+                allTexts(document, ScrapeSelector.DETAIL_CAST));
+    }
+
+    /**
+     * Gets the text of the first element matching a selector.
+     * @param document The parsed page.
+     * @param selector The selector.
+     * @return Returns the text, or an empty string if no element matches.
+     */
+    private String firstText(Document document, ScrapeSelector selector) {
+        Elements elements = selector.selectIn(document);
+        return elements.isEmpty() ? "" : elements.first().text();
+    }
+
+    /**
+     * Gets the texts of all elements matching a selector, without duplicates.
+     * @param document The parsed page.
+     * @param selector The selector.
+     * @return Returns the texts, in the order they appear on the page.
+     */
+    private String[] allTexts(Document document, ScrapeSelector selector) {
+        Set<String> texts = new LinkedHashSet<>();
+        for (Element element : selector.selectIn(document)) {
+            String text = element.text();
+            if (!text.isEmpty()) {
+                texts.add(text);
+            }
+        }
+        return texts.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,214 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Class that keeps the details of every enriched Content by IMDB id, so details are found whatever tracking query the
+ * IMDB URL of the Content has. Every new detail is appended as one line to a
+ * journal file, so nothing already fetched is lost if the program is closed in the middle of an enrichment, and the
+ * enrichment can resume where it stopped. A half-written last line is skipped when the journal is loaded, and the
+ * journal is rewritten without outdated lines when it has grown to more than twice the number of details.
+ */
+public final class DetailStore {
+    private static final DetailStore SHARED = new DetailStore(Settings.getDataDirectory().resolve("details.journal"));
+    private static final String FIELD_SEPARATOR = "\t";
+    private static final String LIST_SEPARATOR = "\u001F";
+    private static final int FIELDS = 6;
+
+    private final Path journal;
+    private final Map<String, ContentDetails> details = new ConcurrentHashMap<>();
+    private BufferedWriter writer;
+    private boolean loaded;
+
+    /**
+     * Constructor that sets the journal file.
+     * @param journal File the details are kept in.
+     */
+    public DetailStore(Path journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Getter for the store shared by the whole program, kept in the data directory.
+     * @return Returns the shared store.
+     */
+    public static DetailStore shared() {
+        return SHARED;
+    }
+
+    /**
+     * Loads all details from the journal, unless they are already loaded. Reads from disk, so it should not be called
+     * on the JavaFX application thread.
+     */
+    public synchronized void load() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(journal, StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            return;
+        } catch (IOException e) {
+            System.out.println("Error reading details: " + e.getMessage());
+            return;
+        }
+        for (String line : lines) {
+            String[] fields = line.split(FIELD_SEPARATOR, -1);
+            //A complete line ends with a separator, so a line cut off while it was written has fewer fields
+            if (fields.length == FIELDS && fields[FIELDS - 1].isEmpty()) {
+                details.put(Content.titleIdOf(fields[0]), new ContentDetails(fields[1], fields[2], splitList(fields[3]), splitList(fields[4])));
+            }
+        }
+        if (writer == null && lines.size() > 2 * details.size()) {
+            compact();
+        }
+    }
+
+    /**
+     * Getter for the details of a Content.
+     * @param imdbUrl URL to the IMDB page of the Content.
+     * @return Returns the details, or null if the Content isn't enriched.
+     */
+    public ContentDetails get(String imdbUrl) {
+        return imdbUrl == null ? null : details.get(Content.titleIdOf(imdbUrl));
+    }
+
+    /**
+     * Checks whether a Content is enriched.
+     * @param imdbUrl URL to the IMDB page of the Content.
+     * @return Returns true if the store has details of the Content.
+     */
+    public boolean contains(String imdbUrl) {
+        return imdbUrl != null && details.containsKey(Content.titleIdOf(imdbUrl));
+    }
+
+    /**
+     * Stores the details of a Content and appends them to the journal.
+     * @param imdbUrl URL to the IMDB page of the Content.
+     * @param contentDetails The details.
+     */
+    public synchronized void put(String imdbUrl, ContentDetails contentDetails) {
+        details.put(Content.titleIdOf(imdbUrl), contentDetails);
+        try {
+            if (writer == null) {
+                Files.createDirectories(journal.getParent());
+                boolean cutOff = endsWithoutNewline();
+                writer = Files.newBufferedWriter(journal, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                if (cutOff) {
+                    writer.newLine();
+                }
+            }
+            writer.write(toLine(imdbUrl, contentDetails));
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            System.out.println("Error writing details: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Closes the journal. Details stored after this reopen it.
+     */
+    public synchronized void close() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            System.out.println("Error closing details: " + e.getMessage());
+        }
+        writer = null;
+    }
+
+    /**
+     * Checks whether the journal ends with a line that was cut off, so that new lines aren't appended to it.
+     * @return Returns true if the journal isn't empty and doesn't end with a line separator.
+     * @throws IOException If the journal couldn't be read.
+     */
+    private boolean endsWithoutNewline() throws IOException {
+        if (!Files.exists(journal)) {
+            return false;
+        }
+        try (SeekableByteChannel channel = Files.newByteChannel(journal)) {
+            if (channel.size() == 0) {
+                return false;
+            }
+            ByteBuffer lastByte = ByteBuffer.allocate(1);
+            channel.position(channel.size() - 1).read(lastByte);
+            return lastByte.get(0) != '\n';
+        }
+    }
+
+    /**
+     * Rewrites the journal with one line for every stored detail.
+     */
+    private void compact() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, ContentDetails> entry : details.entrySet()) {
+            sb.append(toLine(entry.getKey(), entry.getValue())).append(System.lineSeparator());
+        }
+        try {
+            CacheFiles.writeAtomically(journal, sb.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            System.out.println("Error compacting details: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Turns the details of a Content into a line of the journal.
+     * @param imdbUrl URL to the IMDB page of the Content.
+     * @param contentDetails The details.
+     * @return Returns the line, without line separator.
+     */
+    private static String toLine(String imdbUrl, ContentDetails contentDetails) {
+        return String.join(FIELD_SEPARATOR, clean(imdbUrl), clean(contentDetails.runtime()), clean(contentDetails.plot()),
+                joinList(contentDetails.directors()), joinList(contentDetails.fullCast()), "");
+    }
+
+    /**
+     * Joins names into one field of the journal.
+     * @param values The names.
+     * @return Returns the joined names.
+     */
+    private static String joinList(String[] values) {
+        StringBuilder sb = new StringBuilder();
+        for (String value : values) {
+            if (sb.length() > 0) {
+                sb.append(LIST_SEPARATOR);
+            }
+            sb.append(clean(value).replace(LIST_SEPARATOR, " "));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Splits a field of the journal into names.
+     * @param field The field.
+     * @return Returns the names.
+     */
+    private static String[] splitList(String field) {
+        return field.isEmpty() ? new String[0] : field.split(LIST_SEPARATOR);
+    }
+
+    /**
+     * Replaces characters that would break the line format of the journal with spaces.
+     * @param value The value to be written.
+     * @return Returns the cleaned value.
+     */
+    private static String clean(String value) {
+        return value == null ? "" : value.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+}
@@ -0,0 +1,205 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class that renders and sends personal digests of upcoming releases to many subscribers. The templates are parsed
+ * once, and each digest is rendered straight into the body of its email. The titles of a subscriber are found with the
+ * bitsets of the genre indexes of a {@link CatalogSnapshot}, combined with the range of positions released within the
+ * days of the subscriber, so the catalog is never scanned per subscriber, and subscribers with the same filter share
+ * the result. Digests are rendered and handed to a {@link BulkEmailSender} a batch at a time, so only one batch of
+ * bodies is held in memory at once.
+ */
+public class DigestEngine {
+    private static final int DEFAULT_BATCH_SIZE = 50;
+    private static final String DEFAULT_SUBJECT = "Upcoming releases {{from}} to {{to}}";
+    private static final String DEFAULT_TEXT = """
+            Hi {{name}}!
+
+            Here are the upcoming releases from {{from}} to {{to}} that you might like.
+
+            {{#movies}}{{title}} (movie), {{releaseDate}}
+              Genres: {{genres}}
+              Top cast: {{topCast}}
+              {{imdbUrl}}
+
+            {{/movies}}{{#tvShows}}{{title}} (tv-show), {{releaseDate}}
+              Genres: {{genres}}
+              Top cast: {{topCast}}
+              {{imdbUrl}}
+
+            {{/tvShows}}""";
+    private static final String DEFAULT_HTML = """
+            <html><body>
+            <p>Hi {{name}}!</p>
+            <p>Here are the upcoming releases from {{from}} to {{to}} that you might like.</p>
+            <h3>Movies ({{movieCount}})</h3>
+            <ul>
+            {{#movies}}<li><a href="{{imdbUrl}}">{{title}}</a>, {{releaseDate}}<br>{{genres}}<br>{{topCast}}</li>
+            {{/movies}}</ul>
+            <h3>Tv-shows ({{tvShowCount}})</h3>
+            <ul>
+            {{#tvShows}}<li><a href="{{imdbUrl}}">{{title}}</a>, {{releaseDate}}<br>{{genres}}<br>{{topCast}}</li>
+            {{/tvShows}}</ul>
+            </body></html>
+            """;
+
+    private final DigestTemplate subject;
+    private final DigestTemplate text;
+    private final DigestTemplate html;
+    private final int batchSize;
+
+    /**
+     * Record for the titles selected for a filter.
+     * @param movies The selected movies, in order of release date.
+     * @param tvShows The selected tv-shows, in order of release date.
+     */
+    private record Selection(List<Content> movies, List<Content> tvShows) {
+    }
+
+    /**
+     * Constructor that sets up an engine.
+     * @param subject Template of the subject of the emails.
+     * @param text Template of the plain text body of the emails.
+     * @param html Template of the HTML body of the emails, or null to only send plain text.
+     * @param batchSize Number of digests rendered and sent at a time.
+     */
+    public DigestEngine(DigestTemplate subject, DigestTemplate text, DigestTemplate html, int batchSize) {
+        this.subject = subject;
+        this.text = text;
+        this.html = html;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Sets up an engine with the templates from the files set in {@link Settings#DIGEST_TEXT_TEMPLATE} and
+     * {@link Settings#DIGEST_HTML_TEMPLATE}, or the built-in templates for those that aren't set.
+     * @return Returns the engine.
+     * @throws IOException If a template file couldn't be read.
+     * @throws IllegalArgumentException If a template is invalid.
+     */
+    public static DigestEngine fromSettings() throws IOException {
+        return new DigestEngine(DigestTemplate.parse(DEFAULT_SUBJECT, false),
+                DigestTemplate.parse(readTemplate(Settings.DIGEST_TEXT_TEMPLATE, DEFAULT_TEXT), false),
+                DigestTemplate.parse(readTemplate(Settings.DIGEST_HTML_TEMPLATE, DEFAULT_HTML), true),
+                Settings.getInt(Settings.DIGEST_BATCH_SIZE, DEFAULT_BATCH_SIZE));
+    }
+
+    /**
+     * Reads a template from the file set in a setting.
+     * @param key Name of the setting.
+     * @param defaultTemplate Template used when the setting isn't set.
+     * @return Returns the template.
+     * @throws IOException If the file couldn't be read.
+     */
+    private static String readTemplate(String key, String defaultTemplate) throws IOException {
+        String file = Settings.getString(key, null);
+        return file == null ? defaultTemplate : Files.readString(Path.of(file), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Renders and sends the digests of all subscribers. Subscribers without any matching titles are skipped.
+     * @param snapshot The catalog the titles are selected from.
+     * @param subscribers The subscribers.
+     * @param today First day covered by the digests.
+     * @param sender Sender the digests are sent through.
+     * @return Returns the outcome of each sent digest.
+     */
+    public List<BulkEmailSender.Result> send(CatalogSnapshot snapshot, List<DigestSubscriber> subscribers,
+                                             LocalDate today, BulkEmailSender sender) {
+        List<BulkEmailSender.Result> results = new ArrayList<>(subscribers.size());
+        Map<String, Selection> selections = new HashMap<>();
+        List<BulkEmailSender.Email> batch = new ArrayList<>(batchSize);
+        for (DigestSubscriber subscriber : subscribers) {
+            Selection selection = selections.computeIfAbsent(subscriber.getFilterKey(),
+                    key -> select(snapshot, subscriber, today));
+            if (selection.movies().isEmpty() && selection.tvShows().isEmpty()) {
+                continue;
+            }
+            try {
+                batch.add(render(subscriber, selection, today));
+            } catch (IOException e) {
+                results.add(new BulkEmailSender.Result(subscriber.email(), false, e.getMessage()));
+            }
+            if (batch.size() >= batchSize) {
+                results.addAll(sender.sendAll(batch));
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            results.addAll(sender.sendAll(batch));
+        }
+        return results;
+    }
+
+    /**
+     * Selects the titles of a subscriber, released within the days of the subscriber and belonging to any of the
+     * genres of the subscriber.
+     * @param snapshot The catalog the titles are selected from.
+     * @param subscriber The subscriber.
+     * @param today First day covered by the digest.
+     * @return Returns the selected titles.
+     */
+    private static Selection select(CatalogSnapshot snapshot, DigestSubscriber subscriber, LocalDate today) {
+        LocalDate to = today.plusDays(Math.max(1, subscriber.days()) - 1L);
+        return new Selection(select(snapshot.movies(), subscriber.genres(), today, to),
+                select(snapshot.tvShows(), subscriber.genres(), today, to));
+    }
+
+    /**
+     * Selects the titles of one index released within a range and belonging to any of the given genres.
+     * @param index The index.
+     * @param genres The genres, or an empty list for all genres.
+     * @param from First date of the range.
+     * @param to Last date of the range.
+     * @return Returns the selected titles, in order of release date.
+     */
+    private static List<Content> select(GenreIndex index, List<String> genres, LocalDate from, LocalDate to) {
+        BitSet positions = index.between(from, to);
+        if (!positions.isEmpty() && !genres.isEmpty()) {
+            positions.and(index.query(List.of(), genres, List.of()));
+        }
+        return index.select(positions);
+    }
+
+    /**
+     * Renders the digest of a subscriber.
+     * @param subscriber The subscriber.
+     * @param selection The titles of the subscriber.
+     * @param today First day covered by the digest.
+     * @return Returns the email of the digest.
+     * @throws IOException If rendering failed.
+     */
+    private BulkEmailSender.Email render(DigestSubscriber subscriber, Selection selection, LocalDate today)
+            throws IOException {
+        Map<String, String> variables = new HashMap<>();
+        variables.put("name", subscriber.name().isBlank() ? "there" : subscriber.name());
+        variables.put("email", subscriber.email());
+        variables.put("from", today.toString());
+        variables.put("to", today.plusDays(Math.max(1, subscriber.days()) - 1L).toString());
+        variables.put("movieCount", String.valueOf(selection.movies().size()));
+        variables.put("tvShowCount", String.valueOf(selection.tvShows().size()));
+        variables.put("count", String.valueOf(selection.movies().size() + selection.tvShows().size()));
+        Map<String, List<Content>> lists = Map.of("movies", selection.movies(), "tvShows", selection.tvShows());
+
+        StringBuilder subjectSb = new StringBuilder();
+        subject.render(subjectSb, variables, lists);
+        int titles = selection.movies().size() + selection.tvShows().size();
+        StringBuilder textSb = new StringBuilder(256 + titles * 160);
+        text.render(textSb, variables, lists);
+        String htmlBody = null;
+        if (html != null) {
+            StringBuilder htmlSb = new StringBuilder(512 + titles * 200);
+            html.render(htmlSb, variables, lists);
+            htmlBody = htmlSb.toString();
+        }
+        return new BulkEmailSender.Email(subscriber.email(), subjectSb.toString(), textSb.toString(), htmlBody);
+    }
+}
@@ -0,0 +1,73 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Record for a subscriber of the digest of upcoming releases, with the filter deciding which titles the subscriber
+ * gets.
+ * @param email Email address of the subscriber.
+ * @param name Name of the subscriber.
+ * @param genres Genres the subscriber is interested in, where a title must belong to at least one of them. An empty
+ *               list means all genres.
+ * @param days Number of days ahead, starting today, the digest covers.
+ */
+public record DigestSubscriber(String email, String name, List<String> genres, int days) {
+    private static final int DEFAULT_DAYS = 7;
+
+    /**
+     * Compact constructor that makes the genres unmodifiable.
+     */
+    public DigestSubscriber {
+        genres = List.copyOf(genres);
+    }
+
+    /**
+     * Loads subscribers from a file with one subscriber per line, as tab separated email, name, comma separated
+     * genres and number of days. Only the email is required. Empty lines and lines starting with # are skipped.
+     * @param file The file.
+     * @return Returns the subscribers, in the order of the file.
+     * @throws IOException If the file couldn't be read.
+     */
+    public static List<DigestSubscriber> load(Path file) throws IOException {
+        List<DigestSubscriber> subscribers = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\t", -1);
+            String name = fields.length > 1 ? fields[1].trim() : "";
+            List<String> genres = new ArrayList<>();
+            if (fields.length > 2) {
+                for (String genre : fields[2].split(",")) {
+                    if (!genre.isBlank()) {
+                        genres.add(genre.trim());
+                    }
+                }
+            }
+            int days = DEFAULT_DAYS;
+            if (fields.length > 3 && !fields[3].isBlank()) {
+                try {
+                    days = Integer.parseInt(fields[3].trim());
+                } catch (NumberFormatException e) {
+                    System.out.println("Invalid number of days for " + fields[0] + ": " + fields[3]);
+                }
+            }
+            subscribers.add(new DigestSubscriber(fields[0].trim(), name, genres, days));
+        }
+        return subscribers;
+    }
+
+    /**
+     * Getter for the key of the filter of the subscriber, which is the same for all subscribers with the same filter.
+     * @return Returns the key.
+     */
+    public String getFilterKey() {
+        String[] sortedGenres = genres.toArray(new String[0]);
+        Arrays.sort(sortedGenres);
+        return days + "\t" + String.join("\t", sortedGenres);
+    }
+}
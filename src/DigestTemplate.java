@@ -0,0 +1,203 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Class for a digest template, which is parsed once into segments and can then be rendered any number of times,
+ * straight into any {@link Appendable}. A template holds text with variables, such as {@code {{name}}}, and sections,
+ * such as {@code {{#movies}} ... {{/movies}}}, which are repeated for every title of a list. Within a section the
+ * variables of the title are available as well, such as {@code {{title}}} and {@code {{releaseDate}}}. When rendered
+ * as HTML the values of all variables are escaped.
+ */
+public final class DigestTemplate {
+    private static final Set<String> SECTIONS = Set.of("movies", "tvShows");
+    private static final Set<String> VARIABLES = Set.of("name", "email", "from", "to", "count", "movieCount",
+            "tvShowCount");
+    private static final Set<String> TITLE_VARIABLES = Set.of("title", "releaseDate", "regionalReleaseDates",
+            "genres", "topCast", "type", "imdbUrl", "posterUrl");
+
+    private final List<Segment> segments;
+    private final boolean html;
+
+    /**
+     * Interface for a parsed part of a template.
+     */
+    private sealed interface Segment permits Text, Variable, Section {
+    }
+
+    /**
+     * Record for text that is rendered as it is.
+     * @param text The text.
+     */
+    private record Text(String text) implements Segment {
+    }
+
+    /**
+     * Record for a variable that is replaced by its value.
+     * @param name Name of the variable.
+     */
+    private record Variable(String name) implements Segment {
+    }
+
+    /**
+     * Record for a section that is repeated for every title of a list.
+     * @param name Name of the list.
+     * @param body Segments of the section.
+     */
+    private record Section(String name, List<Segment> body) implements Segment {
+    }
+
+    /**
+     * Constructor that sets the parsed template.
+     * @param segments Segments of the template.
+     * @param html Whether values are escaped as HTML.
+     */
+    private DigestTemplate(List<Segment> segments, boolean html) {
+        this.segments = segments;
+        this.html = html;
+    }
+
+    /**
+     * Parses a template.
+     * @param source The template.
+     * @param html Whether the template is HTML, in which case the values of all variables are escaped.
+     * @return Returns the parsed template.
+     * @throws IllegalArgumentException If the template has an unknown variable or section, or a section isn't closed.
+     */
+    public static DigestTemplate parse(String source, boolean html) {
+        List<List<Segment>> open = new ArrayList<>();
+        List<String> openNames = new ArrayList<>();
+        open.add(new ArrayList<>());
+        int position = 0;
+        while (position < source.length()) {
+            int start = source.indexOf("{{", position);
+            if (start < 0) {
+                open.get(open.size() - 1).add(new Text(source.substring(position)));
+                break;
+            }
+            int end = source.indexOf("}}", start);
+            if (end < 0) {
+                throw new IllegalArgumentException("Unclosed tag at position " + start);
+            }
+            if (start > position) {
+                open.get(open.size() - 1).add(new Text(source.substring(position, start)));
+            }
+            String tag = source.substring(start + 2, end).trim();
+            if (tag.startsWith("#")) {
+                String name = tag.substring(1).trim();
+                if (!SECTIONS.contains(name) || !openNames.isEmpty()) {
+                    throw new IllegalArgumentException("Unknown or nested section " + name + " at position " + start);
+                }
+                openNames.add(name);
+                open.add(new ArrayList<>());
+            } else if (tag.startsWith("/")) {
+                String name = tag.substring(1).trim();
+                if (openNames.isEmpty() || !openNames.get(openNames.size() - 1).equals(name)) {
+                    throw new IllegalArgumentException("Unexpected end of section " + name + " at position " + start);
+                }
+                List<Segment> body = open.remove(open.size() - 1);
+                openNames.remove(openNames.size() - 1);
+                open.get(open.size() - 1).add(new Section(name, List.copyOf(body)));
+            } else {
+                boolean inSection = !openNames.isEmpty();
+                if (!VARIABLES.contains(tag) && !(inSection && TITLE_VARIABLES.contains(tag))) {
+                    throw new IllegalArgumentException("Unknown variable " + tag + " at position " + start);
+                }
+                open.get(open.size() - 1).add(new Variable(tag));
+            }
+            position = end + 2;
+        }
+        if (!openNames.isEmpty()) {
+            throw new IllegalArgumentException("Section " + openNames.get(0) + " isn't closed");
+        }
+        return new DigestTemplate(List.copyOf(open.get(0)), html);
+    }
+
+    /**
+     * Renders the template.
+     * @param out Where the rendered template is written.
+     * @param variables Values of the variables outside of sections.
+     * @param lists Titles of each section, by name of the section.
+     * @throws IOException If writing failed.
+     */
+    public void render(Appendable out, Map<String, String> variables, Map<String, List<Content>> lists)
+            throws IOException {
+        render(out, segments, variables, lists, null);
+    }
+
+    /**
+     * Renders segments of the template.
+     * @param out Where the rendered segments are written.
+     * @param segments The segments.
+     * @param variables Values of the variables outside of sections.
+     * @param lists Titles of each section, by name of the section.
+     * @param title The title of the section being rendered, or null outside of sections.
+     * @throws IOException If writing failed.
+     */
+    private void render(Appendable out, List<Segment> segments, Map<String, String> variables,
+                        Map<String, List<Content>> lists, Content title) throws IOException {
+        for (Segment segment : segments) {
+            if (segment instanceof Text text) {
+                out.append(text.text());
+            } else if (segment instanceof Variable variable) {
+                String value = title != null && TITLE_VARIABLES.contains(variable.name())
+                        ? titleValue(title, variable.name())
+                        : variables.get(variable.name());
+                appendValue(out, value);
+            } else if (segment instanceof Section section) {
+                for (Content c : lists.getOrDefault(section.name(), List.of())) {
+                    render(out, section.body(), variables, lists, c);
+                }
+            }
+        }
+    }
+
+    /**
+     * Getter for the value of a variable of a title.
+     * @param content The title.
+     * @param name Name of the variable.
+     * @return Returns the value.
+     */
+    private static String titleValue(Content content, String name) {
+        return switch (name) {
+            case "title" -> content.title();
+            case "releaseDate" -> String.valueOf(content.releaseDate());
+            case "regionalReleaseDates" -> content.getRegionalReleaseDates();
+            case "genres" -> content.getGenres();
+            case "topCast" -> content.getTopCast();
+            case "type" -> content.type();
+            case "imdbUrl" -> content.imdbUrl();
+            case "posterUrl" -> content.getPosterUrl();
+            default -> "";
+        };
+    }
+
+    /**
+     * Writes a value, escaped if the template is HTML.
+     * @param out Where the value is written.
+     * @param value The value, or null to write nothing.
+     * @throws IOException If writing failed.
+     */
+    private void appendValue(Appendable out, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (!html) {
+            out.append(value);
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            switch (ch) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(ch);
+            }
+        }
+    }
+}
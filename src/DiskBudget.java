@@ -0,0 +1,153 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Class that keeps the files of an on-disk cache within a budget of bytes. The size of the cache is counted once, the
+ * first time it is needed, and then kept up to date as entries are written, so the budget is checked on every write
+ * without listing the directory. When the budget is exceeded, the least recently used entries are deleted until the
+ * cache is a tenth below its budget, so the directory isn't listed again on the very next write. An entry is every
+ * file whose name starts with the same file name from {@link CacheFiles#fileNameFor}, and it counts as used when it is
+ * written or {@link #touch touched}.
+ */
+final class DiskBudget {
+    private final Path directory;
+    private final long budget;
+    private long usedBytes = -1;
+
+    /**
+     * Constructor that sets the cache directory and its budget.
+     * @param directory Directory of the cache.
+     * @param budget Largest number of bytes the cache may use.
+     */
+    DiskBudget(Path directory, long budget) {
+        this.directory = directory;
+        this.budget = budget;
+    }
+
+    /**
+     * Marks a file as used, so its entry is evicted after entries that were used less recently.
+     * @param file The file.
+     */
+    void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            //The entry is just evicted sooner
+        }
+    }
+
+    /**
+     * Records that a file of the cache has been written, and evicts entries if the budget is exceeded.
+     * @param newBytes Size of the file as written.
+     * @param replacedBytes Size of the file it replaced, or 0 if it is new.
+     */
+    synchronized void written(long newBytes, long replacedBytes) {
+        if (usedBytes < 0) {
+            //Counting the directory already includes the written file
+            usedBytes = countBytes();
+        } else {
+            usedBytes += newBytes - replacedBytes;
+        }
+        if (usedBytes > budget) {
+            evict();
+        }
+    }
+
+    /**
+     * Gets the size of a file before it is replaced.
+     * @param file The file.
+     * @return Returns the size, or 0 if the file doesn't exist.
+     */
+    static long sizeOf(Path file) {
+        try {
+            return Files.exists(file) ? Files.size(file) : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Counts the bytes of all files of the cache.
+     * @return Returns the number of bytes.
+     */
+    private long countBytes() {
+        long total = 0;
+        for (Entry entry : listEntries()) {
+            total += entry.bytes;
+        }
+        return total;
+    }
+
+    /**
+     * Deletes the least recently used entries until the cache is a tenth below its budget.
+     */
+    private void evict() {
+        List<Entry> entries = listEntries();
+        entries.sort(Comparator.comparingLong(entry -> entry.lastUsed));
+        usedBytes = 0;
+        for (Entry entry : entries) {
+            usedBytes += entry.bytes;
+        }
+        long target = budget - budget / 10;
+        for (Entry entry : entries) {
+            if (usedBytes <= target) {
+                break;
+            }
+            for (Path file : entry.files) {
+                try {
+                    long bytes = Files.size(file);
+                    if (Files.deleteIfExists(file)) {
+                        usedBytes -= bytes;
+                    }
+                } catch (IOException e) {
+                    System.out.println("IOException, couldn't evict cache file: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Lists the entries of the cache, skipping temporary files of writes in progress.
+     * @return Returns the entries.
+     */
+    private List<Entry> listEntries() {
+        Map<String, Entry> entries = new LinkedHashMap<>();
+        if (!Files.isDirectory(directory)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> !file.getFileName().toString().endsWith(".tmp")).forEach(file -> {
+                String name = file.getFileName().toString();
+                int dot = name.indexOf('.');
+                Entry entry = entries.computeIfAbsent(dot < 0 ? name : name.substring(0, dot), key -> new Entry());
+                entry.files.add(file);
+                try {
+                    entry.bytes += Files.size(file);
+                    entry.lastUsed = Math.max(entry.lastUsed, Files.getLastModifiedTime(file).toMillis());
+                } catch (IOException e) {
+                    //Deleted while listing
+                }
+            });
+        } catch (IOException e) {
+            System.out.println("IOException: " + e.getMessage());
+        }
+        return new ArrayList<>(entries.values());
+    }
+
+    /**
+     * Inner class for the files of one cache entry.
+     */
+    private static final class Entry {
+        private final List<Path> files = new ArrayList<>();
+        private long bytes;
+        private long lastUsed;
+    }
+}
@@ -0,0 +1,476 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class that sends emails in the background through a durable outbox. Every queued email, attempt and outcome is
+ * appended as one line to a journal file before anything else happens, so queued emails survive a crash or restart
+ * and are sent once the outbox is started again. A single worker thread sends the emails through {@link EmailSender}
+ * and retries failed emails with exponential backoff, giving up after {@value #MAX_ATTEMPTS} attempts, or at once if
+ * the failure can't be fixed by trying again. A {@link Listener} is told what became of every queued email. An email is
+ * identified by a hash of its recipient, subject and message, so queuing the same email again while it is queued, or
+ * within a day of it being sent, does nothing. Queuing never waits for the disk or the network. The journal is
+ * rewritten without outdated lines whenever it has grown to more than twice the number of emails it needs to remember.
+ */
+public final class EmailOutbox {
+    private static final EmailOutbox SHARED = new EmailOutbox(Settings.getDataDirectory().resolve("outbox.journal"));
+    private static final String FIELD_SEPARATOR = "\t";
+    private static final int MAX_ATTEMPTS = 8;
+    private static final long FIRST_RETRY_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    private static final long MAX_RETRY_MILLIS = TimeUnit.HOURS.toMillis(1);
+    private static final long DEDUPE_WINDOW_MILLIS = TimeUnit.DAYS.toMillis(1);
+    private static final int MIN_COMPACT_LINES = 64;
+    private static final long STOP_TIMEOUT_SECONDS = 5;
+
+    private final Path journal;
+    private final Map<String, Entry> pending = new LinkedHashMap<>();
+    private final Map<String, Long> sent = new LinkedHashMap<>();
+    private final ScheduledExecutorService worker;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private ScheduledFuture<?> wakeUp;
+    private BufferedWriter writer;
+    private int journalLines;
+    private boolean loaded;
+    private boolean closed;
+
+    /**
+     * Record for a queued email.
+     * @param id Hash of the recipient, subject and message.
+     * @param to Email address of the recipient.
+     * @param subject Title of the email.
+     * @param message Text contents of the email.
+     * @param attempts Number of failed attempts so far.
+     * @param nextAttempt Time of the next attempt, in milliseconds since the epoch.
+     */
+    private record Entry(String id, String to, String subject, String message, int attempts, long nextAttempt) {
+    }
+
+    /**
+     * Interface for following what becomes of queued emails. The methods are called on the worker thread of the
+     * outbox, so a listener that updates a GUI has to hand the calls over to the GUI thread itself.
+     */
+    public interface Listener {
+
+        /**
+         * Called when an email has been queued.
+         * @param id The id of the email, as returned by {@link #enqueue}.
+         * @param to Email address of the recipient.
+         */
+        default void onQueued(String id, String to) {
+        }
+
+        /**
+         * Called when an email isn't queued, because it is already queued or was sent within the last day.
+         * @param id The id of the email, as returned by {@link #enqueue}.
+         * @param to Email address of the recipient.
+         * @param alreadyQueued True if the email is still queued, false if it has already been sent.
+         */
+        default void onDuplicate(String id, String to, boolean alreadyQueued) {
+        }
+
+        /**
+         * Called when the outbox gives up on an email, which is then never sent.
+         * @param id The id of the email.
+         * @param to Email address of the recipient.
+         * @param subject Title of the email.
+         * @param error The reason the last attempt failed, or null if it isn't known.
+         */
+        default void onGivenUp(String id, String to, String subject, String error) {
+        }
+    }
+
+    /**
+     * Constructor that sets the journal file. The worker thread is started on first use.
+     * @param journal File the outbox is kept in.
+     */
+    public EmailOutbox(Path journal) {
+        this.journal = journal;
+        this.worker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "email-outbox");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Getter for the outbox shared by the whole program, kept in the data directory.
+     * @return Returns the shared outbox.
+     */
+    public static EmailOutbox shared() {
+        return SHARED;
+    }
+
+    /**
+     * Adds a listener that is told what becomes of queued emails.
+     * @param listener The listener.
+     */
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Loads the journal in the background and sends the emails that were left queued.
+     */
+    public void start() {
+        submit(this::drain);
+    }
+
+    /**
+     * Queues an email to be sent in the background. Returns at once, and can be called from any thread.
+     * @param to Email address of the recipient.
+     * @param subject Title of the email.
+     * @param message Text contents of the email.
+     * @return Returns the id of the email.
+     */
+    public String enqueue(String to, String subject, String message) {
+        String id = idOf(to, subject, message);
+        submit(() -> {
+            if (pending.containsKey(id)) {
+                listeners.forEach(listener -> listener.onDuplicate(id, to, true));
+                return;
+            }
+            Long sentAt = sent.get(id);
+            if (sentAt != null && System.currentTimeMillis() - sentAt < DEDUPE_WINDOW_MILLIS) {
+                listeners.forEach(listener -> listener.onDuplicate(id, to, false));
+                return;
+            }
+            Entry entry = new Entry(id, to, subject, message, 0, System.currentTimeMillis());
+            pending.put(id, entry);
+            append("Q", id, escape(to), escape(subject), escape(message));
+            listeners.forEach(listener -> listener.onQueued(id, to));
+            drain();
+        });
+        return id;
+    }
+
+    /**
+     * Stops the worker and waits for it to finish before the journal is closed, so the line of an email that was being
+     * sent is still written. Emails that are still queued are sent when the outbox is started again.
+     */
+    public void stop() {
+        worker.shutdownNow();
+        try {
+            if (!worker.awaitTermination(STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                System.out.println("Outbox worker didn't stop in time, closing the outbox anyway");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            closed = true;
+            try {
+                if (writer != null) {
+                    writer.close();
+                    writer = null;
+                }
+            } catch (IOException e) {
+                System.out.println("Error closing outbox: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Runs a job on the worker thread, after the journal has been loaded.
+     * @param job The job.
+     */
+    private void submit(Runnable job) {
+        if (!worker.isShutdown()) {
+            worker.execute(() -> run(job));
+        }
+    }
+
+    /**
+     * Runs a job on the current thread, which is the worker thread, after the journal has been loaded.
+     * @param job The job.
+     */
+    private void run(Runnable job) {
+        try {
+            load();
+            job.run();
+        } catch (RuntimeException e) {
+            System.out.println("Unexpected exception: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Sends every queued email that is due, then schedules the worker to wake up when the next email is due.
+     */
+    private void drain() {
+        long now = System.currentTimeMillis();
+        long nextDue = Long.MAX_VALUE;
+        for (Entry entry : List.copyOf(pending.values())) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            if (entry.nextAttempt() > now) {
+                nextDue = Math.min(nextDue, entry.nextAttempt());
+                continue;
+            }
+            EmailSender sender = new EmailSender(entry.to(), entry.subject(), entry.message());
+            if (sender.send()) {
+                pending.remove(entry.id());
+                sent.put(entry.id(), System.currentTimeMillis());
+                append("S", entry.id(), String.valueOf(System.currentTimeMillis()));
+            } else if (sender.isPermanentFailure() || entry.attempts() + 1 >= MAX_ATTEMPTS) {
+                pending.remove(entry.id());
+                append("X", entry.id());
+                PipelineMetrics.EMAILS_FAILED.increment();
+                PipelineMetrics.EMAILS_DROPPED.increment();
+                System.out.println("Gave up sending email to " + entry.to() + " after " + (entry.attempts() + 1)
+                        + " attempts");
+                listeners.forEach(listener -> listener.onGivenUp(entry.id(), entry.to(), entry.subject(),
+                        sender.getError()));
+            } else {
+                Entry retry = new Entry(entry.id(), entry.to(), entry.subject(), entry.message(), entry.attempts() + 1,
+                        System.currentTimeMillis() + retryDelay(entry.attempts() + 1));
+                pending.put(entry.id(), retry);
+                PipelineMetrics.EMAIL_RETRIES.increment();
+                append("F", entry.id(), String.valueOf(retry.attempts()), String.valueOf(retry.nextAttempt()));
+                nextDue = Math.min(nextDue, retry.nextAttempt());
+            }
+        }
+        if (wakeUp != null) {
+            wakeUp.cancel(false);
+            wakeUp = null;
+        }
+        if (nextDue != Long.MAX_VALUE && !worker.isShutdown()) {
+            long delay = Math.max(0, nextDue - System.currentTimeMillis());
+            wakeUp = worker.schedule(() -> run(this::drain), delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Calculates the delay before the next attempt, doubled for every failed attempt and spread by up to a tenth.
+     * @param attempts Number of failed attempts so far.
+     * @return Returns the delay in milliseconds.
+     */
+    private static long retryDelay(int attempts) {
+        long delay = Math.min(MAX_RETRY_MILLIS, FIRST_RETRY_MILLIS << Math.min(attempts - 1, 20));
+        return delay + ThreadLocalRandom.current().nextLong(delay / 10 + 1);
+    }
+
+    /**
+     * Loads the queued and recently sent emails from the journal, unless they are already loaded. Lines are replayed
+     * in order, and a half-written last line is skipped. The journal is compacted if it has grown too large.
+     */
+    private void load() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(journal, StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            return;
+        } catch (IOException e) {
+            System.out.println("Error reading outbox: " + e.getMessage());
+            return;
+        }
+        for (String line : lines) {
+            String[] fields = line.split(FIELD_SEPARATOR, -1);
+            //A complete line ends with a separator, so a line cut off while it was written is missing its last field
+            if (fields.length < 3 || !fields[fields.length - 1].isEmpty()) {
+                continue;
+            }
+            String id = fields[1];
+            try {
+                switch (fields[0]) {
+                    case "Q" -> {
+                        if (fields.length == 6) {
+                            pending.put(id, new Entry(id, unescape(fields[2]), unescape(fields[3]),
+                                    unescape(fields[4]), 0, 0));
+                        }
+                    }
+                    case "F" -> {
+                        Entry entry = pending.get(id);
+                        if (entry != null && fields.length == 5) {
+                            pending.put(id, new Entry(id, entry.to(), entry.subject(), entry.message(),
+                                    Integer.parseInt(fields[2]), Long.parseLong(fields[3])));
+                        }
+                    }
+                    case "S" -> {
+                        pending.remove(id);
+                        if (fields.length == 4) {
+                            sent.put(id, Long.parseLong(fields[2]));
+                        }
+                    }
+                    case "X" -> pending.remove(id);
+                    default -> {
+                    }
+                }
+            } catch (NumberFormatException e) {
+                //Skips a line that was damaged
+            }
+        }
+        journalLines = lines.size();
+        sent.values().removeIf(sentAt -> System.currentTimeMillis() - sentAt >= DEDUPE_WINDOW_MILLIS);
+        compactIfNeeded();
+    }
+
+    /**
+     * Rewrites the journal with only the queued and recently sent emails, if it has grown to more than twice the number
+     * of emails it needs to remember. A journal of fewer than {@value #MIN_COMPACT_LINES} lines is left as it is, so
+     * an email that keeps failing doesn't rewrite the journal on every attempt.
+     */
+    private synchronized void compactIfNeeded() {
+        if (closed || journalLines <= Math.max(MIN_COMPACT_LINES, 2 * (pending.size() + sent.size()))) {
+            return;
+        }
+        sent.values().removeIf(sentAt -> System.currentTimeMillis() - sentAt >= DEDUPE_WINDOW_MILLIS);
+        int lines = 0;
+        StringBuilder sb = new StringBuilder();
+        for (Entry entry : pending.values()) {
+            sb.append(toLine("Q", entry.id(), escape(entry.to()), escape(entry.subject()), escape(entry.message())));
+            lines++;
+            if (entry.attempts() > 0) {
+                sb.append(toLine("F", entry.id(), String.valueOf(entry.attempts()),
+                        String.valueOf(entry.nextAttempt())));
+                lines++;
+            }
+        }
+        for (Map.Entry<String, Long> entry : sent.entrySet()) {
+            sb.append(toLine("S", entry.getKey(), String.valueOf(entry.getValue())));
+            lines++;
+        }
+        try {
+            //The writer still points at the old journal once it has been replaced, so it is opened again on next append
+            if (writer != null) {
+                writer.close();
+                writer = null;
+            }
+            CacheFiles.writeAtomically(journal, sb.toString().getBytes(StandardCharsets.UTF_8));
+            journalLines = lines;
+        } catch (IOException e) {
+            System.out.println("Error compacting outbox: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Appends a line to the journal and flushes it, so it is kept even if the program crashes right after, and then
+     * compacts the journal if it has grown too large. Nothing is written once the outbox is stopped.
+     * @param fields Fields of the line.
+     */
+    private synchronized void append(String... fields) {
+        if (closed) {
+            return;
+        }
+        try {
+            if (writer == null) {
+                Files.createDirectories(journal.getParent());
+                boolean cutOff = endsWithoutNewline();
+                writer = Files.newBufferedWriter(journal, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                if (cutOff) {
+                    writer.newLine();
+                }
+            }
+            writer.write(toLine(fields));
+            writer.flush();
+            journalLines++;
+        } catch (IOException e) {
+            System.out.println("Error writing outbox: " + e.getMessage());
+        }
+        compactIfNeeded();
+    }
+
+    /**
+     * Checks whether the journal ends with a line that was cut off, so that new lines aren't appended to it.
+     * @return Returns true if the journal isn't empty and doesn't end with a line separator.
+     * @throws IOException If the journal couldn't be read.
+     */
+    private boolean endsWithoutNewline() throws IOException {
+        if (!Files.exists(journal)) {
+            return false;
+        }
+        try (SeekableByteChannel channel = Files.newByteChannel(journal)) {
+            if (channel.size() == 0) {
+                return false;
+            }
+            ByteBuffer lastByte = ByteBuffer.allocate(1);
+            channel.position(channel.size() - 1).read(lastByte);
+            return lastByte.get(0) != '\n';
+        }
+    }
+
+    /**
+     * Turns fields into a line of the journal, which ends with a separator to mark it as complete.
+     * @param fields Fields of the line, already escaped.
+     * @return Returns the line, with line separator.
+     */
+    private static String toLine(String... fields) {
+        return String.join(FIELD_SEPARATOR, fields) + FIELD_SEPARATOR + System.lineSeparator();
+    }
+
+    /**
+     * Calculates the id of an email.
+     * @param to Email address of the recipient.
+     * @param subject Title of the email.
+     * @param message Text contents of the email.
+     * @return Returns the id, as hexadecimal SHA-256 hash.
+     */
+    private static String idOf(String to, String subject, String message) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(to.trim().toLowerCase().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(subject.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(message.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Escapes a value so that it fits within one field of the journal.
+     * @param value The value.
+     * @return Returns the value with backslashes, tabs and line breaks escaped.
+     */
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    /**
+     * Reverses {@link #escape(String)}.
+     * @param value The escaped value.
+     * @return Returns the original value.
+     */
+    private static String unescape(String value) {
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                sb.append(switch (next) {
+                    case 't' -> '\t';
+                    case 'n' -> '\n';
+                    case 'r' -> '\r';
+                    default -> next;
+                });
+            } else {
+                sb.append(ch);
+            }
+        }
+        return sb.toString();
+    }
+}
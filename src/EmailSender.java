@@ -5,17 +5,21 @@ import javax.mail.internet.MimeMessage;
 import java.util.Properties;
 
 /**
- * Class that handles the sending of emails via use of gmail-host and TLS-port.
+ * Class that handles the sending of emails via use of gmail-host and TLS-port. Host, port, TLS and credentials can be
+ * changed through {@link Settings}, for example to send through a local SMTP server.
  */
 class EmailSender {
     private static final String HOST = "smtp.gmail.com";
     private static final String PORT = "587";
     private static final String username = ""; // ADD email-sender to include functionality in program
     private static final String password = ""; // ADD password to include functionality in program
+    private static Session session;
     private final String to;
     private final String subject;
     private final String messageContent;
     private boolean emailSent = false;
+    private boolean permanentFailure = false;
+    private String error = null;
 
     /**
      * Constructor for EmailSender that is parameterized.
@@ -30,39 +34,90 @@ class EmailSender {
     }
 
     /**
-     * Method that handles the sending of emails. It creates an instance of Properties, Sessions
-     * and Message to perform its task. Uses a time-out to hinder getting stuck on send.
+     * Method that handles the sending of emails. It uses the shared Session to create a Message and send it.
+     * Uses a time-out to hinder getting stuck on send.
      */
     public boolean send() {
-        Properties prop = new Properties();
-        prop.put("mail.smtp.host", HOST);
-        prop.put("mail.smtp.port", PORT);
-        prop.put("mail.smtp.auth", "true");
-        prop.put("mail.smtp.starttls.enable", "true");
-        prop.put("mail.smtp.timeout", "5000");
-        prop.put("mail.smtp.connectiontimeout", "5000");
-
-        Session session = Session.getInstance(prop, new javax.mail.Authenticator() {
-            protected PasswordAuthentication getPasswordAuthentication() {
-                return new PasswordAuthentication(username, password);
-            }
-        });
-
         try {
-            Message message = new MimeMessage(session);
-            message.setFrom(new InternetAddress(username));
+            Message message = new MimeMessage(getSession());
+            message.setFrom(new InternetAddress(getUsername()));
             message.setRecipient(Message.RecipientType.TO, new InternetAddress(to));
             message.setSubject(subject);
             message.setText(messageContent);
 
+            long start = System.nanoTime();
             Transport.send(message);
+            PipelineMetrics.EMAIL_SEND_TIME.recordSince(start);
             emailSent = true;
         } catch (AddressException e) {
+            //An invalid sender or recipient address won't become valid by trying again
+            permanentFailure = true;
+            error = e.getMessage();
             System.out.println("AddressException: " + e.getMessage());
+        } catch (SendFailedException e) {
+            //Permanent if the server refused the recipient, otherwise the connection failed and may work later
+            Address[] invalid = e.getInvalidAddresses();
+            permanentFailure = invalid != null && invalid.length > 0;
+            error = e.getMessage();
+            System.out.println("SendFailedException: " + e.getMessage());
         } catch (MessagingException e) {
+            error = e.getMessage();
             System.out.println("MessagingException: " + e.getMessage());
         }
+        //A failed attempt may be retried, so only the final outcome of an email is counted as failed, by the caller
+        if (emailSent) {
+            PipelineMetrics.EMAILS_SENT.increment();
+        }
         return emailSent;
     }
 
-}
\ No newline at end of file
+    /**
+     * Checks whether the last attempt to send failed in a way that trying again can't fix, such as an invalid address.
+     * @return Returns true if the email should not be retried.
+     */
+    public boolean isPermanentFailure() {
+        return permanentFailure;
+    }
+
+    /**
+     * Getter for the reason the last attempt to send failed.
+     * @return Returns the error message, or null if the email was sent or the reason isn't known.
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Getter for the Session shared by all sending of emails. It is created on first use, with the host, port, TLS
+     * and credentials from {@link Settings}. Authentication is only used if a username is set.
+     * @return Returns the Session.
+     */
+    static synchronized Session getSession() {
+        if (session == null) {
+            Properties prop = new Properties();
+            prop.put("mail.smtp.host", Settings.getString(Settings.SMTP_HOST, HOST));
+            prop.put("mail.smtp.port", Settings.getString(Settings.SMTP_PORT, PORT));
+            prop.put("mail.smtp.auth", String.valueOf(!getUsername().isEmpty()));
+            prop.put("mail.smtp.starttls.enable", String.valueOf(Settings.getBoolean(Settings.SMTP_STARTTLS, true)));
+            prop.put("mail.smtp.timeout", "5000");
+            prop.put("mail.smtp.connectiontimeout", "5000");
+
+            String sessionPassword = Settings.getString(Settings.SMTP_PASSWORD, password);
+            session = Session.getInstance(prop, new javax.mail.Authenticator() {
+                protected PasswordAuthentication getPasswordAuthentication() {
+                    return new PasswordAuthentication(getUsername(), sessionPassword);
+                }
+            });
+        }
+        return session;
+    }
+
+    /**
+     * Getter for the address emails are sent from, which is also the username of the SMTP server.
+     * @return Returns the address, or an empty string if none is set.
+     */
+    static String getUsername() {
+        return Settings.getString(Settings.SMTP_USERNAME, username);
+    }
+
+}
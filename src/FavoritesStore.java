@@ -0,0 +1,345 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Class that keeps the favorite Content of the user by IMDB id, in the order it was added. As favorites are matched by
+ * id instead of by instance or by URL, whose tracking query differs between pages, they still match after a refresh
+ * has replaced the Content, and {@link #reattach} swaps
+ * in the fresh Content so favorites show the latest data. Every change is appended as one line to a journal file, so
+ * favorites are kept between runs without the whole file being rewritten on every change. A half-written last line is
+ * skipped when the journal is loaded, and the journal is rewritten without outdated lines whenever it has grown to more
+ * than twice the number of favorites.
+ */
+public final class FavoritesStore {
+    private static final FavoritesStore SHARED = new FavoritesStore(Settings.getDataDirectory().resolve("favorites.journal"));
+    private static final String FIELD_SEPARATOR = "\t";
+    private static final String LIST_SEPARATOR = "\u001F";
+    private static final int ADD_FIELDS = 10;
+    private static final int REMOVE_FIELDS = 3;
+    private static final int MIN_COMPACT_LINES = 64;
+
+    private final Path journal;
+    private final Map<String, Content> favorites = new LinkedHashMap<>();
+    private BufferedWriter writer;
+    private int journalLines;
+    private boolean loaded;
+
+    /**
+     * Constructor that sets the journal file.
+     * @param journal File the favorites are kept in.
+     */
+    public FavoritesStore(Path journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Getter for the store shared by the whole program, kept in the data directory.
+     * @return Returns the shared store.
+     */
+    public static FavoritesStore shared() {
+        return SHARED;
+    }
+
+    /**
+     * Loads all favorites from the journal, unless they are already loaded. Reads from disk, so it should preferably be
+     * called before the favorites are first needed, off the JavaFX application thread.
+     */
+    public synchronized void load() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(journal, StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            return;
+        } catch (IOException e) {
+            System.out.println("Error reading favorites: " + e.getMessage());
+            return;
+        }
+        for (String line : lines) {
+            String[] fields = line.split(FIELD_SEPARATOR, -1);
+            //A complete line ends with a separator, so a line cut off while it was written has fewer fields
+            if (fields.length == ADD_FIELDS && fields[0].equals("A") && fields[ADD_FIELDS - 1].isEmpty()) {
+                Content content = fromFields(fields);
+                favorites.put(content.getTitleId(), content);
+            } else if (fields.length == REMOVE_FIELDS && fields[0].equals("R") && fields[REMOVE_FIELDS - 1].isEmpty()) {
+                favorites.remove(Content.titleIdOf(fields[1]));
+            }
+        }
+        journalLines = lines.size();
+        compactIfNeeded();
+    }
+
+    /**
+     * Checks whether a Content is a favorite.
+     * @param content The Content, which may be a newer instance than the one that was added.
+     * @return Returns true if a Content with the same IMDB id is a favorite.
+     */
+    public synchronized boolean contains(Content content) {
+        load();
+        return content != null && favorites.containsKey(content.getTitleId());
+    }
+
+    /**
+     * Adds a Content to the favorites, unless a Content with the same IMDB id already is a favorite.
+     * @param content The Content.
+     * @return Returns true if the Content was added.
+     */
+    public synchronized boolean add(Content content) {
+        load();
+        if (content == null || content.imdbUrl() == null || favorites.containsKey(content.getTitleId())) {
+            return false;
+        }
+        favorites.put(content.getTitleId(), content);
+        append(toAddLine(content));
+        return true;
+    }
+
+    /**
+     * Removes a Content from the favorites.
+     * @param content The Content, which may be a newer instance than the one that was added.
+     * @return Returns true if the Content was a favorite.
+     */
+    public synchronized boolean remove(Content content) {
+        load();
+        if (content == null || favorites.remove(content.getTitleId()) == null) {
+            return false;
+        }
+        append(String.join(FIELD_SEPARATOR, "R", clean(content.imdbUrl()), ""));
+        return true;
+    }
+
+    /**
+     * Getter for all favorites.
+     * @return Returns a copy of the favorites, in the order they were added.
+     */
+    public synchronized List<Content> getAll() {
+        load();
+        return new ArrayList<>(favorites.values());
+    }
+
+    /**
+     * Replaces favorites with the matching Content of a new scrape, so they show the latest data. Only favorites whose
+     * data has changed are written to the journal, and the order of the favorites is kept. A title listed more than once
+     * in the scrape is replaced by one listing only, see {@link #pickListing}.
+     * @param data Content of the new scrape.
+     */
+    public synchronized void reattach(Collection<Content> data) {
+        load();
+        if (favorites.isEmpty()) {
+            return;
+        }
+        Map<String, Content> listings = new LinkedHashMap<>();
+        for (Content fresh : data) {
+            if (fresh.imdbUrl() == null) {
+                continue;
+            }
+            Content current = favorites.get(fresh.getTitleId());
+            if (current != null) {
+                listings.merge(fresh.getTitleId(), fresh, (picked, other) -> pickListing(current, picked, other));
+            }
+        }
+        for (Content fresh : listings.values()) {
+            Content current = favorites.get(fresh.getTitleId());
+            if (current != fresh) {
+                //Putting an existing key keeps its position
+                favorites.put(fresh.getTitleId(), fresh);
+                if (!current.hasSameData(fresh)) {
+                    append(toAddLine(fresh));
+                }
+            }
+        }
+    }
+
+    /**
+     * Picks which of two listings of the same title a favorite is replaced by, so the same listing is picked on every
+     * refresh: the listing with the same release date as the favorite, or otherwise the one released first.
+     * @param current The favorite.
+     * @param first One listing of the title.
+     * @param second Another listing of the title.
+     * @return Returns the listing to keep.
+     */
+    private static Content pickListing(Content current, Content first, Content second) {
+        LocalDate date = current.releaseDate();
+        if (date != null && date.equals(first.releaseDate()) != date.equals(second.releaseDate())) {
+            return date.equals(first.releaseDate()) ? first : second;
+        }
+        if (second.releaseDate() != null && (first.releaseDate() == null
+                || second.releaseDate().isBefore(first.releaseDate()))) {
+            return second;
+        }
+        return first;
+    }
+
+    /**
+     * Appends a line to the journal, and then compacts the journal if it has grown too large.
+     * @param line The line, without line separator.
+     */
+    private void append(String line) {
+        try {
+            if (writer == null) {
+                Files.createDirectories(journal.getParent());
+                boolean cutOff = endsWithoutNewline();
+                writer = Files.newBufferedWriter(journal, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                if (cutOff) {
+                    writer.newLine();
+                }
+            }
+            writer.write(line);
+            writer.newLine();
+            writer.flush();
+            journalLines++;
+        } catch (IOException e) {
+            System.out.println("Error writing favorites: " + e.getMessage());
+        }
+        compactIfNeeded();
+    }
+
+    /**
+     * Checks whether the journal ends with a line that was cut off, so that new lines aren't appended to it.
+     * @return Returns true if the journal isn't empty and doesn't end with a line separator.
+     * @throws IOException If the journal couldn't be read.
+     */
+    private boolean endsWithoutNewline() throws IOException {
+        if (!Files.exists(journal)) {
+            return false;
+        }
+        try (SeekableByteChannel channel = Files.newByteChannel(journal)) {
+            if (channel.size() == 0) {
+                return false;
+            }
+            ByteBuffer lastByte = ByteBuffer.allocate(1);
+            channel.position(channel.size() - 1).read(lastByte);
+            return lastByte.get(0) != '\n';
+        }
+    }
+
+    /**
+     * Rewrites the journal with one line for every favorite, if it has grown to more than twice the number of favorites.
+     * A journal of fewer than {@value #MIN_COMPACT_LINES} lines is left as it is.
+     */
+    private void compactIfNeeded() {
+        if (journalLines <= Math.max(MIN_COMPACT_LINES, 2 * favorites.size())) {
+            return;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Content content : favorites.values()) {
+            sb.append(toAddLine(content)).append(System.lineSeparator());
+        }
+        try {
+            //The writer still points at the old journal once it has been replaced, so it is opened again on next append
+            if (writer != null) {
+                writer.close();
+                writer = null;
+            }
+            CacheFiles.writeAtomically(journal, sb.toString().getBytes(StandardCharsets.UTF_8));
+            journalLines = favorites.size();
+        } catch (IOException e) {
+            System.out.println("Error compacting favorites: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Turns a favorite into a line of the journal.
+     * @param content The favorite.
+     * @return Returns the line, without line separator.
+     */
+    private static String toAddLine(Content content) {
+        StringBuilder regions = new StringBuilder();
+        for (Map.Entry<String, LocalDate> region : content.regionalReleaseDates().entrySet()) {
+            if (regions.length() > 0) {
+                regions.append(LIST_SEPARATOR);
+            }
+            regions.append(clean(region.getKey())).append('=').append(region.getValue());
+        }
+        return String.join(FIELD_SEPARATOR, "A", clean(content.imdbUrl()), clean(content.title()),
+                clean(content.posterUrl()), joinList(content.genres()), joinList(content.topCast()),
+                content.releaseDate() == null ? "" : content.releaseDate().toString(), clean(content.type()),
+                regions.toString(), "");
+    }
+
+    /**
+     * Turns a line of the journal into a favorite.
+     * @param fields Fields of the line.
+     * @return Returns the favorite.
+     */
+    private static Content fromFields(String[] fields) {
+        Map<String, LocalDate> regions = new TreeMap<>();
+        for (String region : splitList(fields[8])) {
+            int separator = region.indexOf('=');
+            LocalDate date = separator < 0 ? null : parseDate(region.substring(separator + 1));
+            if (date != null) {
+                regions.put(region.substring(0, separator), date);
+            }
+        }
+        return new Content(fields[3].isEmpty() ? null : fields[3], fields[2], splitList(fields[4]), splitList(fields[5]),
+                parseDate(fields[6]), fields[7], fields[1], regions);
+    }
+
+    /**
+     * Parses a date of the journal.
+     * @param field The field.
+     * @return Returns the date, or null if the field is empty or invalid.
+     */
+    private static LocalDate parseDate(String field) {
+        try {
+            return field.isEmpty() ? null : LocalDate.parse(field);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Joins values into one field of the journal.
+     * @param values The values.
+     * @return Returns the joined values.
+     */
+    private static String joinList(String[] values) {
+        StringBuilder sb = new StringBuilder();
+        if (values != null) {
+            for (String value : values) {
+                if (sb.length() > 0) {
+                    sb.append(LIST_SEPARATOR);
+                }
+                sb.append(clean(value).replace(LIST_SEPARATOR, " "));
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Splits a field of the journal into values.
+     * @param field The field.
+     * @return Returns the values.
+     */
+    private static String[] splitList(String field) {
+        return field.isEmpty() ? new String[0] : field.split(LIST_SEPARATOR);
+    }
+
+    /**
+     * Replaces characters that would break the line format of the journal with spaces.
+     * @param value The value to be written.
+     * @return Returns the cleaned value.
+     */
+    private static String clean(String value) {
+        return value == null ? "" : value.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+}
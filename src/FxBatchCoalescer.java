@@ -0,0 +1,78 @@
+import javafx.animation.AnimationTimer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Class that hands over items published from background threads to the JavaFX application thread in batches. All
+ * items published between two pulses of the JavaFX toolkit are delivered together, once per pulse, so that a fast
+ * producer can't flood the application thread with small updates.
+ * @param <T> Type of the items.
+ */
+public class FxBatchCoalescer<T> {
+    private final ConcurrentLinkedQueue<T> pending = new ConcurrentLinkedQueue<>();
+    private final Consumer<List<T>> consumer;
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            deliverPending();
+        }
+    };
+
+    /**
+     * Constructor that sets the consumer of the batches.
+     * @param consumer Callback run on the JavaFX application thread with each batch.
+     */
+    public FxBatchCoalescer(Consumer<List<T>> consumer) {
+        this.consumer = consumer;
+    }
+
+    /**
+     * Starts delivering batches. Must be called on the JavaFX application thread.
+     */
+    public void start() {
+        timer.start();
+    }
+
+    /**
+     * Publishes items to be delivered with the next batch. Can be called from any thread.
+     * @param items The items.
+     */
+    public void publish(Collection<T> items) {
+        pending.addAll(items);
+    }
+
+    /**
+     * Delivers all items still pending and stops delivering batches. Must be called on the JavaFX application thread.
+     */
+    public void finish() {
+        timer.stop();
+        deliverPending();
+    }
+
+    /**
+     * Stops delivering batches without delivering the items still pending. Must be called on the JavaFX application
+     * thread.
+     */
+    public void cancel() {
+        timer.stop();
+        pending.clear();
+    }
+
+    /**
+     * Delivers all items published since the last batch, if any.
+     */
+    private void deliverPending() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<T> batch = new ArrayList<>();
+        T item;
+        while ((item = pending.poll()) != null) {
+            batch.add(item);
+        }
+        consumer.accept(batch);
+    }
+}
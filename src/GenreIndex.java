@@ -0,0 +1,251 @@
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Class that indexes Content by genre. Every genre is given a small integer id, every title carries a bitset of the
+ * ids of its genres and every genre has a bitset of the positions of its titles. Queries combine those bitsets with
+ * AND, OR and NOT, and always return titles in order of release date. The number of titles of every genre is counted
+ * once, when the index is built. An index is never changed after it is built.
+ */
+public final class GenreIndex {
+    private static final GenreIndex EMPTY = build(List.of());
+
+    private final List<Content> titles;
+    private final List<String> genreNames;
+    private final Map<String, Integer> genreIds;
+    private final BitSet[] titleGenres;
+    private final BitSet[] genreTitles;
+    private final int[] genreCounts;
+    private final Map<String, Integer> counts;
+
+    /**
+     * Constructor that sets the built index.
+     * @param titles All titles, in order of release date.
+     * @param genreNames Names of all genres, where the position of a name is the id of the genre.
+     * @param genreIds Ids of all genres, by name.
+     * @param titleGenres Ids of the genres of each title.
+     * @param genreTitles Positions of the titles of each genre.
+     * @param genreCounts Number of titles of each genre.
+     */
+    private GenreIndex(List<Content> titles, List<String> genreNames, Map<String, Integer> genreIds,
+                       BitSet[] titleGenres, BitSet[] genreTitles, int[] genreCounts) {
+        this.titles = titles;
+        this.genreNames = genreNames;
+        this.genreIds = genreIds;
+        this.titleGenres = titleGenres;
+        this.genreTitles = genreTitles;
+        this.genreCounts = genreCounts;
+        Map<String, Integer> countsByName = new LinkedHashMap<>();
+        for (int id = 0; id < genreNames.size(); id++) {
+            countsByName.put(genreNames.get(id), genreCounts[id]);
+        }
+        this.counts = Collections.unmodifiableMap(countsByName);
+    }
+
+    /**
+     * Getter for an index without any titles.
+     * @return Returns the empty index.
+     */
+    public static GenreIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds an index of the given Content.
+     * @param data Content to be indexed.
+     * @return Returns the index.
+     */
+    public static GenreIndex build(List<Content> data) {
+        List<Content> titles = new ArrayList<>(data);
+        titles.sort(Comparator.comparing(Content::releaseDate, Comparator.nullsLast(Comparator.naturalOrder())));
+
+        //Genre ids are given in alphabetical order, so that they are the same for the same genres every time
+        TreeSet<String> sortedGenres = new TreeSet<>();
+        for (Content c : titles) {
+            Collections.addAll(sortedGenres, c.genres());
+        }
+        List<String> genreNames = List.copyOf(sortedGenres);
+        Map<String, Integer> genreIds = new HashMap<>();
+        for (int id = 0; id < genreNames.size(); id++) {
+            genreIds.put(genreNames.get(id), id);
+        }
+
+        BitSet[] titleGenres = new BitSet[titles.size()];
+        BitSet[] genreTitles = new BitSet[genreNames.size()];
+        for (int id = 0; id < genreTitles.length; id++) {
+            genreTitles[id] = new BitSet(titles.size());
+        }
+        for (int position = 0; position < titles.size(); position++) {
+            BitSet genres = new BitSet(genreNames.size());
+            for (String genre : titles.get(position).genres()) {
+                int id = genreIds.get(genre);
+                genres.set(id);
+                genreTitles[id].set(position);
+            }
+            titleGenres[position] = genres;
+        }
+        int[] genreCounts = new int[genreTitles.length];
+        for (int id = 0; id < genreTitles.length; id++) {
+            genreCounts[id] = genreTitles[id].cardinality();
+        }
+        return new GenreIndex(Collections.unmodifiableList(titles), genreNames, genreIds, titleGenres, genreTitles,
+                genreCounts);
+    }
+
+    /**
+     * Getter for all indexed titles.
+     * @return Returns an unmodifiable list of the titles, in order of release date.
+     */
+    public List<Content> getTitles() {
+        return titles;
+    }
+
+    /**
+     * Getter for all genres.
+     * @return Returns an unmodifiable list of the genres, in alphabetical order.
+     */
+    public List<String> getGenres() {
+        return genreNames;
+    }
+
+    /**
+     * Getter for the number of titles of a genre.
+     * @param genre Name of the genre.
+     * @return Returns the number of titles, or 0 for an unknown genre.
+     */
+    public int getCount(String genre) {
+        Integer id = genreIds.get(genre);
+        return id == null ? 0 : genreCounts[id];
+    }
+
+    /**
+     * Getter for the number of titles of every genre.
+     * @return Returns an unmodifiable map of the counts by genre, in alphabetical order of genre.
+     */
+    public Map<String, Integer> getCounts() {
+        return counts;
+    }
+
+    /**
+     * Getter for the genres of a title.
+     * @param position Position of the title in {@link #getTitles()}.
+     * @return Returns a copy of the bitset of genre ids of the title.
+     */
+    public BitSet getGenreIds(int position) {
+        return (BitSet) titleGenres[position].clone();
+    }
+
+    /**
+     * Getter for the number of indexed titles.
+     * @return Returns the number of titles.
+     */
+    public int size() {
+        return titles.size();
+    }
+
+    /**
+     * Finds the positions of all titles matching a query. An empty collection places no restriction on the result.
+     * @param allOf Genres a title must all belong to (AND).
+     * @param anyOf Genres a title must belong to at least one of (OR).
+     * @param noneOf Genres a title must not belong to (NOT).
+     * @return Returns the positions of the matching titles in {@link #getTitles()}.
+     */
+    public BitSet query(Collection<String> allOf, Collection<String> anyOf, Collection<String> noneOf) {
+        BitSet result = new BitSet(titles.size());
+        result.set(0, titles.size());
+
+        for (String genre : allOf) {
+            Integer id = genreIds.get(genre);
+            if (id == null) {
+                return new BitSet();
+            }
+            result.and(genreTitles[id]);
+        }
+        if (!anyOf.isEmpty()) {
+            BitSet union = new BitSet(titles.size());
+            for (String genre : anyOf) {
+                Integer id = genreIds.get(genre);
+                if (id != null) {
+                    union.or(genreTitles[id]);
+                }
+            }
+            result.and(union);
+        }
+        for (String genre : noneOf) {
+            Integer id = genreIds.get(genre);
+            if (id != null) {
+                result.andNot(genreTitles[id]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the positions of all titles released between two dates. As the titles are in order of release date, the
+     * positions form one range, which is found by binary search.
+     * @param from First date of the range.
+     * @param to Last date of the range.
+     * @return Returns the positions of the titles in {@link #getTitles()}.
+     */
+    public BitSet between(LocalDate from, LocalDate to) {
+        BitSet result = new BitSet(titles.size());
+        if (!from.isAfter(to)) {
+            result.set(firstPositionFrom(from), firstPositionFrom(to.plusDays(1)));
+        }
+        return result;
+    }
+
+    /**
+     * Finds the position of the first title released on or after a date.
+     * @param date The date.
+     * @return Returns the position, or the number of dated titles if all of them are released before the date.
+     */
+    private int firstPositionFrom(LocalDate date) {
+        int low = 0;
+        int high = titles.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            LocalDate releaseDate = titles.get(middle).releaseDate();
+            //Titles without a release date are sorted last
+            if (releaseDate != null && releaseDate.isBefore(date)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Finds all titles matching a query. An empty collection places no restriction on the result.
+     * @param allOf Genres a title must all belong to (AND).
+     * @param anyOf Genres a title must belong to at least one of (OR).
+     * @param noneOf Genres a title must not belong to (NOT).
+     * @return Returns the matching titles, in order of release date.
+     */
+    public List<Content> filter(Collection<String> allOf, Collection<String> anyOf, Collection<String> noneOf) {
+        return select(query(allOf, anyOf, noneOf));
+    }
+
+    /**
+     * Gets the titles at the given positions.
+     * @param positions Positions in {@link #getTitles()}.
+     * @return Returns the titles, in order of release date.
+     */
+    public List<Content> select(BitSet positions) {
+        List<Content> selected = new ArrayList<>(positions.cardinality());
+        for (int position = positions.nextSetBit(0); position >= 0; position = positions.nextSetBit(position + 1)) {
+            selected.add(titles.get(position));
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,328 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Class that runs a scrape from the command line, without starting JavaFX or loading any GUI classes. Movies and/or
+ * tv-shows are scraped by {@link CalendarScraper}, mapped into a {@link Catalog} and written as tab separated values or
+ * JSON to standard output or a file. Progress and errors are reported on standard error, so standard output only ever
+ * holds the catalog. With --watch the program keeps running, refreshes through a {@link RefreshScheduler} and writes
+ * the catalog again every time a title is added, rescheduled or removed. --watch needs --output, as the catalog is
+ * written more than once, and the output file is always replaced in one step so a reader never sees half a catalog. A
+ * content type whose first scrape had errors is only compared against a later scrape without errors. With --digest a
+ * personal digest is sent to every subscriber in the given file, see {@link DigestSubscriber#load}.
+ *
+ * <pre>
+ * java RunWebScraper --headless [--type movies|tv|all] [--format tsv|json] [--genre GENRE]... [--search QUERY]
+ *                    [--output FILE] [--digest SUBSCRIBERS] [--watch]
+ * </pre>
+ */
+public class HeadlessRunner {
+    private static final String USAGE = "Usage: RunWebScraper --headless [--type movies|tv|all] [--format tsv|json]"
+            + " [--genre GENRE]... [--search QUERY] [--output FILE] [--digest SUBSCRIBERS] [--watch]";
+    private static final int DEFAULT_WATCH_INTERVAL_MINUTES = 60;
+
+    private String type = "all";
+    private String format = "tsv";
+    private final List<String> genres = new ArrayList<>();
+    private String search = "";
+    private Path output = null;
+    private Path digestSubscribers = null;
+    private boolean watch = false;
+    private final Set<String> failedTypes = ConcurrentHashMap.newKeySet();
+    private final Catalog catalog = new Catalog();
+
+    /**
+     * Runs a scrape with the given command line arguments.
+     * @param args The command line arguments, including --headless.
+     * @return Returns the exit code: 0 on success, 1 if a page couldn't be scraped or the catalog couldn't be written,
+     * and 2 if the arguments are invalid.
+     */
+    public static int run(String[] args) {
+        //Anything printed by the scraping classes goes to standard error, keeping standard output for the catalog
+        PrintStream stdout = System.out;
+        System.setOut(System.err);
+        try {
+            HeadlessRunner runner = new HeadlessRunner();
+            if (!runner.parse(args)) {
+                System.err.println(USAGE);
+                return 2;
+            }
+            return runner.scrapeAndWrite(stdout);
+        } finally {
+            BackgroundExecutor.shared().shutdown();
+            System.setOut(stdout);
+        }
+    }
+
+    /**
+     * Parses the command line arguments into the options of this runner.
+     * @param args The command line arguments.
+     * @return Returns true if the arguments are valid.
+     */
+    private boolean parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("--headless")) {
+                continue;
+            }
+            if (arg.equals("--watch")) {
+                watch = true;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                System.err.println("Missing value for " + arg);
+                return false;
+            }
+            String value = args[++i];
+            switch (arg) {
+                case "--type" -> type = value;
+                case "--format" -> format = value;
+                case "--genre" -> genres.add(value);
+                case "--search" -> search = value;
+                case "--output" -> output = Path.of(value);
+                case "--digest" -> digestSubscribers = Path.of(value);
+                default -> {
+                    System.err.println("Unknown option: " + arg);
+                    return false;
+                }
+            }
+        }
+        if (!Arrays.asList("movies", "tv", "all").contains(type)) {
+            System.err.println("Unknown type: " + type);
+            return false;
+        }
+        if (!Arrays.asList("tsv", "json").contains(format)) {
+            System.err.println("Unknown format: " + format);
+            return false;
+        }
+        if (watch && output == null) {
+            System.err.println("--watch needs --output");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Scrapes and maps the selected content types, and writes the Content matching the genre and search filters.
+     * @param stdout The original standard output, used if no output file is given.
+     * @return Returns the exit code.
+     */
+    private int scrapeAndWrite(PrintStream stdout) {
+        CalendarScraper scraper = new CalendarScraper();
+        if (!type.equals("tv")) {
+            System.err.println("Scraping movies...");
+            catalog.mapMovies(scraper.scrapeMovies(errorListener("Movie")));
+        }
+        if (!type.equals("movies")) {
+            System.err.println("Scraping tv-shows...");
+            catalog.mapTvShows(scraper.scrapeTvShows(errorListener("Tv-show")));
+        }
+
+        if (!writeCatalog(stdout)) {
+            return 1;
+        }
+        boolean failed = !failedTypes.isEmpty();
+        if (digestSubscribers != null && !sendDigests()) {
+            failed = true;
+        }
+        if (watch) {
+            return watch(stdout);
+        }
+        return failed ? 1 : 0;
+    }
+
+    /**
+     * Creates a listener that reports scrape errors and remembers which content type had them.
+     * @param contentType The type of the Content being scraped.
+     * @return Returns the listener.
+     */
+    private ScrapeListener errorListener(String contentType) {
+        return new ScrapeListener() {
+            @Override
+            public void onError(String url, Exception e) {
+                failedTypes.add(contentType);
+                System.err.println("Error scraping " + url + ": " + e);
+            }
+        };
+    }
+
+    /**
+     * Sends the digest of upcoming releases to every subscriber in the subscribers file.
+     * @return Returns true if every digest was sent.
+     */
+    private boolean sendDigests() {
+        List<BulkEmailSender.Result> results;
+        try (BulkEmailSender sender = new BulkEmailSender()) {
+            List<DigestSubscriber> subscribers = DigestSubscriber.load(digestSubscribers);
+            results = DigestEngine.fromSettings().send(catalog.getSnapshot(), subscribers, LocalDate.now(), sender);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Error sending digests: " + e.getMessage());
+            return false;
+        }
+        int sent = 0;
+        for (BulkEmailSender.Result result : results) {
+            if (result.sent()) {
+                sent++;
+            } else {
+                System.err.println("Digest to " + result.recipient() + " failed: " + result.error());
+            }
+        }
+        System.err.println("Sent " + sent + " of " + results.size() + " digests");
+        return sent == results.size();
+    }
+
+    /**
+     * Keeps refreshing the scraped content types until the program is stopped, and writes the catalog again whenever a
+     * refresh finds relevant changes. A content type whose first scrape had errors gets its baseline from the first
+     * refresh without errors, and the catalog is written again once it has. The interval is
+     * {@value #DEFAULT_WATCH_INTERVAL_MINUTES} minutes unless set in {@link Settings#REFRESH_INTERVAL_MINUTES}.
+     * @param stdout The original standard output, used if no output file is given.
+     * @return Returns the exit code, once interrupted.
+     */
+    private int watch(PrintStream stdout) {
+        RefreshScheduler scheduler = RefreshScheduler.fromSettings(DEFAULT_WATCH_INTERVAL_MINUTES,
+                new RefreshScheduler.Listener() {
+                    @Override
+                    public void onRefreshed(String contentType, List<Content> data, RefreshChanges changes) {
+                        map(contentType, data);
+                        if (changes.isRelevant()) {
+                            System.err.print(changes.describe());
+                            writeCatalog(stdout);
+                        }
+                    }
+
+                    @Override
+                    public void onBaseline(String contentType, List<Content> data) {
+                        map(contentType, data);
+                        System.err.println("Scraped " + contentType.toLowerCase() + "s without errors,"
+                                + " watching them for changes");
+                        writeCatalog(stdout);
+                    }
+                });
+        if (scheduler == null) {
+            System.err.println("Scheduled refresh is turned off by " + Settings.REFRESH_INTERVAL_MINUTES);
+            return 2;
+        }
+        CatalogSnapshot snapshot = catalog.getSnapshot();
+        if (!type.equals("tv")) {
+            setBaseline(scheduler, "Movie", snapshot.movies().getTitles());
+        }
+        if (!type.equals("movies")) {
+            setBaseline(scheduler, "Tv-show", snapshot.tvShows().getTitles());
+        }
+        scheduler.start();
+        System.err.println("Watching for changes...");
+        try {
+            Thread.currentThread().join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            scheduler.stop();
+        }
+        return 0;
+    }
+
+    /**
+     * Sets the baseline of a content type, unless its first scrape had errors. A partial scrape would make every title
+     * of a page that failed look added on the next refresh, so such a type is watched until a refresh has no errors.
+     * @param scheduler The scheduler.
+     * @param contentType The type of the Content.
+     * @param data All scraped Content of the type.
+     */
+    private void setBaseline(RefreshScheduler scheduler, String contentType, List<Content> data) {
+        if (failedTypes.contains(contentType)) {
+            System.err.println("Scraping " + contentType.toLowerCase() + "s had errors,"
+                    + " waiting for a refresh without errors");
+            scheduler.watch(contentType);
+        } else {
+            scheduler.setBaseline(contentType, data);
+        }
+    }
+
+    /**
+     * Maps refreshed Content into the catalog.
+     * @param contentType The type of the Content.
+     * @param data All Content of the type.
+     */
+    private void map(String contentType, List<Content> data) {
+        if (contentType.equals("Movie")) {
+            catalog.mapMovies(data);
+        } else {
+            catalog.mapTvShows(data);
+        }
+    }
+
+    /**
+     * Writes the Content of the catalog matching the genre and search filters to the output file, or to standard
+     * output if there is none. The output file is written to a temporary file first and then moved into place.
+     * @param stdout The original standard output.
+     * @return Returns true if the catalog was written.
+     */
+    private synchronized boolean writeCatalog(PrintStream stdout) {
+        CatalogSnapshot snapshot = catalog.getSnapshot();
+        List<Content> data = new ArrayList<>();
+        if (!type.equals("tv")) {
+            data.addAll(select(snapshot.movies(), snapshot.movieSearch()));
+        }
+        if (!type.equals("movies")) {
+            data.addAll(select(snapshot.tvShows(), snapshot.tvShowSearch()));
+        }
+
+        try {
+            if (output == null) {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(stdout, StandardCharsets.UTF_8));
+                write(writer, data);
+            } else {
+                StringWriter writer = new StringWriter();
+                write(writer, data);
+                byte[] bytes = writer.toString().getBytes(StandardCharsets.UTF_8);
+                CacheFiles.writeAtomicallyForUser(output, bytes);
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing catalog: " + e.getMessage());
+            return false;
+        }
+        System.err.println("Wrote " + data.size() + " titles");
+        return true;
+    }
+
+    /**
+     * Selects the Content of one type that has all the given genres and matches the search query.
+     * @param index Genre index of the type.
+     * @param searchIndex Search index of the type.
+     * @return Returns the matching Content, in order of release date.
+     */
+    private List<Content> select(GenreIndex index, SearchIndex searchIndex) {
+        BitSet positions = index.query(genres, List.of(), List.of());
+        positions.and(searchIndex.search(search));
+        return index.select(positions);
+    }
+
+    /**
+     * Writes Content in the selected format.
+     * @param writer Writer to write to.
+     * @param data The Content to write.
+     * @throws IOException If writing failed.
+     */
+    private void write(Writer writer, List<Content> data) throws IOException {
+        CatalogWriter catalogWriter = new CatalogWriter(writer);
+        if (format.equals("json")) {
+            catalogWriter.writeJson(data);
+        } else {
+            catalogWriter.writeTsv(data);
+        }
+    }
+}
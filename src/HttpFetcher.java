@@ -0,0 +1,226 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Class that performs every HTTP request of the program through a single {@link HttpClient}, so that all calendar
+ * pages, detail pages and posters share one pool of kept-alive connections. HTTP/2 is used where the server supports
+ * it, so several requests to the same host are multiplexed over one connection, and responses are requested compressed
+ * with gzip or deflate. Timeouts are configurable through {@link Settings}, and the request timeout covers the whole
+ * request, including reading the body, so a transfer that stalls can't block the calling thread forever.
+ */
+public final class HttpFetcher {
+    private static final int DEFAULT_CONNECT_TIMEOUT_SECONDS = 10;
+    private static final int DEFAULT_REQUEST_TIMEOUT_SECONDS = 30;
+    private static final String DEFAULT_USER_AGENT =
+            "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/120.0 Safari/537.36";
+    private static final HttpFetcher SHARED = new HttpFetcher(
+            Duration.ofSeconds(Settings.getInt(Settings.HTTP_CONNECT_TIMEOUT_SECONDS, DEFAULT_CONNECT_TIMEOUT_SECONDS)),
+            Duration.ofSeconds(Settings.getInt(Settings.HTTP_REQUEST_TIMEOUT_SECONDS, DEFAULT_REQUEST_TIMEOUT_SECONDS)),
+            Settings.getString(Settings.HTTP_USER_AGENT, DEFAULT_USER_AGENT));
+    private static final ScheduledExecutorService WATCHDOG = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "http-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final HttpClient client;
+    private final Duration requestTimeout;
+    private final String userAgent;
+
+    /**
+     * Record for a received response.
+     * @param statusCode The HTTP status code.
+     * @param body The decompressed body.
+     * @param headers The headers of the response.
+     */
+    public record Response(int statusCode, byte[] body, HttpHeaders headers) {
+
+        /**
+         * Getter for a header of the response.
+         * @param name Name of the header, in any case.
+         * @return Returns the first value of the header, or null if the response has no such header.
+         */
+        public String header(String name) {
+            return headers.firstValue(name).orElse(null);
+        }
+
+        /**
+         * Getter for the charset of the body, as given in the Content-Type header.
+         * @return Returns the name of the charset, or null if the server didn't specify one.
+         */
+        public String charset() {
+            String contentType = header("Content-Type");
+            if (contentType == null) {
+                return null;
+            }
+            for (String parameter : contentType.split(";")) {
+                String trimmed = parameter.trim();
+                if (trimmed.toLowerCase(Locale.ROOT).startsWith("charset=")) {
+                    return trimmed.substring("charset=".length()).replace("\"", "").trim();
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Constructor that sets up the client.
+     * @param connectTimeout Longest time to wait for a connection to be established.
+     * @param requestTimeout Longest time a request may take, from sending it until the whole body is read.
+     * @param userAgent User agent sent with every request.
+     */
+    public HttpFetcher(Duration connectTimeout, Duration requestTimeout, String userAgent) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(connectTimeout)
+                .build();
+        this.requestTimeout = requestTimeout;
+        this.userAgent = userAgent;
+    }
+
+    /**
+     * Getter for the fetcher shared by the whole program.
+     * @return Returns the shared fetcher.
+     */
+    public static HttpFetcher shared() {
+        return SHARED;
+    }
+
+    /**
+     * Sends a GET request and reads the whole response. A compressed body is decompressed while it is streamed in, so
+     * the compressed body is never held in full. If the body hasn't been read when the request timeout has passed, the
+     * body stream is closed, which ends the read.
+     * @param url URL to request.
+     * @param headers Extra headers of the request, for example conditional headers.
+     * @return Returns the response, whatever its status code.
+     * @throws IOException If the request failed or timed out.
+     */
+    public Response get(String url, Map<String, String> headers) throws IOException {
+        HttpRequest.Builder request;
+        try {
+            request = HttpRequest.newBuilder(URI.create(url));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid URL: " + url, e);
+        }
+        request.timeout(requestTimeout)
+                .header("User-Agent", userAgent)
+                .header("Accept-Encoding", "gzip, deflate");
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            request.header(header.getKey(), header.getValue());
+        }
+
+        long start = System.nanoTime();
+        boolean fetched = false;
+        try {
+            Response result = fetch(request.GET().build(), url, start);
+            fetched = true;
+            PipelineMetrics.FETCH_BYTES.record(result.body().length);
+            return result;
+        } finally {
+            PipelineMetrics.FETCH_LATENCY.recordSince(start);
+            if (!fetched) {
+                PipelineMetrics.FETCH_FAILURES.increment();
+            }
+        }
+    }
+
+    /**
+     * Sends a request and reads the whole body within the request timeout.
+     * @param request The request.
+     * @param url URL of the request, for error messages.
+     * @param start Time the request was started, from {@link System#nanoTime()}.
+     * @return Returns the response, whatever its status code.
+     * @throws IOException If the request failed or timed out.
+     */
+    private Response fetch(HttpRequest request, String url, long start) throws IOException {
+        HttpResponse<InputStream> response;
+        try {
+            response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while fetching " + url);
+        }
+
+        String encoding = response.headers().firstValue("Content-Encoding").orElse("").toLowerCase(Locale.ROOT);
+        long remaining = requestTimeout.toNanos() - (System.nanoTime() - start);
+        AtomicBoolean timedOut = new AtomicBoolean();
+        byte[] body;
+        //The raw body is closed on its own, in case the stream that decompresses it can't be created
+        try (InputStream raw = response.body()) {
+            ScheduledFuture<?> watchdog = WATCHDOG.schedule(() -> {
+                timedOut.set(true);
+                closeQuietly(raw);
+            }, Math.max(0, remaining), TimeUnit.NANOSECONDS);
+            try (InputStream in = decode(raw, encoding)) {
+                body = in.readAllBytes();
+            } catch (IOException e) {
+                if (timedOut.get()) {
+                    throw new HttpTimeoutException("Timed out reading " + url);
+                }
+                throw e;
+            } finally {
+                watchdog.cancel(false);
+            }
+        }
+        //A closed body may end early without an error, so the read is only trusted if it finished in time
+        if (timedOut.get()) {
+            throw new HttpTimeoutException("Timed out reading " + url);
+        }
+        return new Response(response.statusCode(), body, response.headers());
+    }
+
+    /**
+     * Sends a GET request without extra headers.
+     * @param url URL to request.
+     * @return Returns the response, whatever its status code.
+     * @throws IOException If the request failed or timed out.
+     */
+    public Response get(String url) throws IOException {
+        return get(url, Map.of());
+    }
+
+    /**
+     * Closes a stream, ignoring errors.
+     * @param stream The stream.
+     */
+    private static void closeQuietly(InputStream stream) {
+        try {
+            stream.close();
+        } catch (IOException e) {
+            //Already closed
+        }
+    }
+
+    /**
+     * Wraps the body of a response in a stream that decompresses it.
+     * @param body The raw body.
+     * @param encoding The Content-Encoding of the response, in lower case.
+     * @return Returns the stream of the decompressed body.
+     * @throws IOException If the body isn't valid for its encoding.
+     */
+    private static InputStream decode(InputStream body, String encoding) throws IOException {
+        return switch (encoding) {
+            case "gzip", "x-gzip" -> new GZIPInputStream(body);
+            case "deflate" -> new InflaterInputStream(body);
+            default -> body;
+        };
+    }
+}
@@ -1,14 +1,15 @@
 import javafx.concurrent.Task;
 import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 /**
- * Class that handles mapping of Content-data by use of Task.
+ * Class that handles mapping of Content-data by use of Task. The mapping itself is done by a {@link Catalog}, which
+ * publishes the mapped data as immutable {@link CatalogSnapshot}s, so it can be read from any thread without locking or
+ * copying.
  */
 public class MappedData {
-    private Map<String, List<Content>> moviesByGenre = new HashMap<>();
-    private Map<String, List<Content>> tvShowsByGenre = new HashMap<>();
-    private Set<String> movieGenres = new HashSet<>();
-    private Set<String> tvShowGenres = new HashSet<>();
+    private final Catalog catalog = new Catalog();
 
 
     /**
@@ -17,15 +18,7 @@ public class MappedData {
      * @param data of Content (of type movie)
      */
     public void mapMovieGenresAsync(Runnable callback, List<Content> data) {
-        Task<Map<String, List<Content>>> task = new GenreMapper(data);
-
-        task.setOnSucceeded(e -> {
-            moviesByGenre = task.getValue();
-            callback.run();
-            movieGenres = moviesByGenre.keySet();
-        });
-
-        new Thread(task).start();
+        startMapping(callback, data, catalog::mapMovies);
     }
 
     /**
@@ -34,85 +27,69 @@ public class MappedData {
      * @param data of Content (of type tv-show)
      */
     public void mapTvShowGenresAsync(Runnable callback, List<Content> data) {
-        Task<Map<String, List<Content>>> task = new GenreMapper(data);
-
-        task.setOnSucceeded(e -> {
-            tvShowsByGenre = task.getValue();
-            callback.run();
-            tvShowGenres = tvShowsByGenre.keySet();
-        });
-
-        new Thread(task).start();
+        startMapping(callback, data, catalog::mapTvShows);
     }
 
     /**
-     * Getter for all movie genres.
-     * @return Returns a copy hashset of all movie genres.
+     * Method that sets up and starts task of mapping Content, and handles OnSucceeded. The mapping is stamped with a
+     * sequence number right away, so a task that is run after a later one can't replace the later data.
+     * @param callback Callback to be performed upon success.
+     * @param data Content to be mapped.
+     * @param mapping Maps the Content stamped with a sequence number and publishes the next snapshot.
      */
-    public HashSet<String> getMovieGenres() {
-        return new HashSet<>(movieGenres);
-    }
+    private void startMapping(Runnable callback, List<Content> data,
+                              BiFunction<List<Content>, Long, CatalogSnapshot> mapping) {
+        long sequence = catalog.nextSequence();
+        Task<CatalogSnapshot> task = new GenreMapper(data, mappedData -> mapping.apply(mappedData, sequence));
 
-    /**
-     * Getter for tv-show genres.
-     * @return Returns a copy hashset of all tv-show genres.
-     */
-    public HashSet<String> getTvShowGenres() {
-        return new HashSet<>(tvShowGenres);
+        task.setOnSucceeded(e -> callback.run());
+
+        BackgroundExecutor.shared().execute(task);
     }
 
     /**
-     * Getter for map of movies with genres as keys.
-     * @return Returns a copy of the map.
+     * Getter for the latest snapshot of the catalog.
+     * @return Returns the snapshot, which is never changed once published.
      */
-    public Map<String, List<Content>> getMoviesByGenre() {
-        return new HashMap<>(moviesByGenre);
+    public CatalogSnapshot getSnapshot() {
+        return catalog.getSnapshot();
     }
 
     /**
-     * Getter for map of tv-shows with genres as keys.
-     * @return Returns a copy of the map.
+     * Getter for the index of all Content by release date. Content that is streamed while scraping can be added to it
+     * directly, and it is brought up to date with the complete scrape every time a content type is mapped.
+     * @return Returns the index.
      */
-    public Map<String, List<Content>> getTvShowsByGenre() {
-        return new HashMap<>(tvShowsByGenre);
+    public ReleaseDateIndex getReleaseDates() {
+        return catalog.getReleaseDates();
     }
 
 
     /**
-     * Inner class that handles the Task of mapping Content by genre.
+     * Inner class that handles the Task of mapping Content and publishing the result as a new snapshot.
      */
-    private class GenreMapper extends Task<Map<String, List<Content>>> {
+    private static class GenreMapper extends Task<CatalogSnapshot> {
         private final List<Content> data;
+        private final Function<List<Content>, CatalogSnapshot> mapping;
 
         /**
          * Constructor sets data to instance variable.
          * @param data Data of all content sent to be mapped.
+         * @param mapping Maps the Content and publishes the next snapshot.
          */
-        public GenreMapper(List<Content> data) {
+        public GenreMapper(List<Content> data, Function<List<Content>, CatalogSnapshot> mapping) {
             this.data = data;
+            this.mapping = mapping;
         }
 
         /**
-         * Call method that handles the mapping by genres.
-         * @return Returns the mapped content.
+         * Call method that handles the mapping by genres, for search and by release date.
+         * @return Returns the published snapshot.
          * @throws Exception Uncaught exception.
          */
         @Override
-        protected Map<String, List<Content>> call() throws Exception {
-
-            Map<String, List<Content>> genreMap = new HashMap<>();
-
-            for (Content c : data) {
-                for (String s : c.genres()) {
-                    List<Content> key = genreMap.get(s);
-                    if (key == null) {
-                        genreMap.put(s, new ArrayList<>());
-                        key = genreMap.get(s);
-                    }
-                    key.add(c);
-                }
-            }
-            return genreMap;
+        protected CatalogSnapshot call() throws Exception {
+            return mapping.apply(data);
         }
 
     }
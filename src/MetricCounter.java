@@ -0,0 +1,34 @@
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Class that counts events, such as sent emails, from any number of threads without locking.
+ */
+public final class MetricCounter implements MetricCounterMBean {
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * Counts one event.
+     */
+    public void increment() {
+        count.increment();
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public void reset() {
+        count.reset();
+    }
+
+    /**
+     * Getter for the count as text.
+     * @return Returns the count.
+     */
+    @Override
+    public String toString() {
+        return String.valueOf(getCount());
+    }
+}
@@ -0,0 +1,15 @@
+/**
+ * Management interface of a {@link MetricCounter}, as shown in JConsole and VisualVM.
+ */
+public interface MetricCounterMBean {
+    /**
+     * Getter for the number of counted events.
+     * @return Returns the number of counted events.
+     */
+    long getCount();
+
+    /**
+     * Sets the count back to 0.
+     */
+    void reset();
+}
@@ -0,0 +1,199 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Class that records the distribution of a measured value, such as a duration or a size, with a fixed amount of
+ * memory however many values are recorded. Values below 16 are counted exactly, and larger values in buckets that
+ * split every power of two into eight, so every percentile is within an eighth of the true value. Recording is
+ * lock-free and can be done from any thread. Values are recorded as whole numbers in a base unit, such as nanoseconds,
+ * and reported divided by a scale, such as milliseconds.
+ */
+public final class MetricHistogram implements MetricHistogramMBean {
+    private static final int EXACT_VALUES = 16;
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int FIRST_EXPONENT = 4;
+    private static final int BUCKETS = EXACT_VALUES + (63 - FIRST_EXPONENT) * SUB_BUCKETS;
+
+    private final String unit;
+    private final double scale;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final LongAccumulator max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+    /**
+     * Constructor that sets the unit values are reported in.
+     * @param unit Name of the unit values are reported in.
+     * @param scale Number of recorded base units per reported unit, for example 1 000 000 to record nanoseconds and
+     *              report milliseconds.
+     */
+    public MetricHistogram(String unit, double scale) {
+        this.unit = unit;
+        this.scale = scale;
+    }
+
+    /**
+     * Records a value. Negative values are recorded as 0.
+     * @param value The value, in the base unit.
+     */
+    public void record(long value) {
+        value = Math.max(0, value);
+        buckets.incrementAndGet(bucketOf(value));
+        total.add(value);
+        min.accumulate(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Records the time passed since a given time, for histograms of durations in nanoseconds.
+     * @param startNanos The start time, from {@link System#nanoTime()}.
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Finds the bucket of a value.
+     * @param value The value, not negative.
+     * @return Returns the position of the bucket.
+     */
+    private static int bucketOf(long value) {
+        if (value < EXACT_VALUES) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return EXACT_VALUES + (exponent - FIRST_EXPONENT) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Finds the value in the middle of a bucket.
+     * @param bucket Position of the bucket.
+     * @return Returns the value, in the base unit.
+     */
+    private static long middleOf(int bucket) {
+        if (bucket < EXACT_VALUES) {
+            return bucket;
+        }
+        int exponent = (bucket - EXACT_VALUES) / SUB_BUCKETS + FIRST_EXPONENT;
+        int subBucket = (bucket - EXACT_VALUES) % SUB_BUCKETS;
+        int shift = exponent - SUB_BUCKET_BITS;
+        long lowest = (long) (SUB_BUCKETS + subBucket) << shift;
+        return lowest + ((1L << shift) >>> 1);
+    }
+
+    /**
+     * Finds the value that a given share of all recorded values are at or below.
+     * @param quantile The share, between 0 and 1.
+     * @return Returns the value in the reported unit, or 0 if no value is recorded.
+     */
+    public double getPercentile(double quantile) {
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            count += counts[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                //The middle of a bucket may lie outside of the recorded values
+                long value = Math.min(max.get(), Math.max(min.get(), middleOf(i)));
+                return value / scale;
+            }
+        }
+        return max.get() / scale;
+    }
+
+    @Override
+    public String getUnit() {
+        return unit;
+    }
+
+    @Override
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += buckets.get(i);
+        }
+        return count;
+    }
+
+    @Override
+    public double getMin() {
+        long value = min.get();
+        return value == Long.MAX_VALUE ? 0 : value / scale;
+    }
+
+    @Override
+    public double getMax() {
+        long value = max.get();
+        return value == Long.MIN_VALUE ? 0 : value / scale;
+    }
+
+    @Override
+    public double getMean() {
+        long count = getCount();
+        return count == 0 ? 0 : total.sum() / scale / count;
+    }
+
+    @Override
+    public double getTotal() {
+        return total.sum() / scale;
+    }
+
+    @Override
+    public double getPercentile50() {
+        return getPercentile(0.5);
+    }
+
+    @Override
+    public double getPercentile75() {
+        return getPercentile(0.75);
+    }
+
+    @Override
+    public double getPercentile95() {
+        return getPercentile(0.95);
+    }
+
+    @Override
+    public double getPercentile99() {
+        return getPercentile(0.99);
+    }
+
+    @Override
+    public double getPercentile999() {
+        return getPercentile(0.999);
+    }
+
+    /**
+     * Forgets all recorded values. Values recorded while resetting may be partly kept.
+     */
+    @Override
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        total.reset();
+        min.reset();
+        max.reset();
+    }
+
+    /**
+     * Summarizes the histogram.
+     * @return Returns the count, mean and main percentiles.
+     */
+    @Override
+    public String toString() {
+        return String.format("count=%d mean=%.2f p50=%.2f p95=%.2f p99=%.2f max=%.2f %s", getCount(), getMean(),
+                getPercentile50(), getPercentile95(), getPercentile99(), getMax(), unit);
+    }
+}
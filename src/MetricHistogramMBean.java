@@ -0,0 +1,76 @@
+/**
+ * Management interface of a {@link MetricHistogram}, as shown in JConsole and VisualVM. All values are in the unit of
+ * the histogram, and percentiles are accurate to within an eighth of the value.
+ */
+public interface MetricHistogramMBean {
+    /**
+     * Getter for the unit of the values.
+     * @return Returns the unit of the values, for example "ms" or "bytes".
+     */
+    String getUnit();
+
+    /**
+     * Getter for the number of recorded values.
+     * @return Returns the number of recorded values.
+     */
+    long getCount();
+
+    /**
+     * Getter for the smallest recorded value.
+     * @return Returns the smallest recorded value, or 0 if none is recorded.
+     */
+    double getMin();
+
+    /**
+     * Getter for the largest recorded value.
+     * @return Returns the largest recorded value, or 0 if none is recorded.
+     */
+    double getMax();
+
+    /**
+     * Getter for the mean of the recorded values.
+     * @return Returns the mean of the recorded values, or 0 if none is recorded.
+     */
+    double getMean();
+
+    /**
+     * Getter for the sum of the recorded values.
+     * @return Returns the sum of the recorded values.
+     */
+    double getTotal();
+
+    /**
+     * Getter for the value half of all recorded values are at or below.
+     * @return Returns the median.
+     */
+    double getPercentile50();
+
+    /**
+     * Getter for the value 75 percent of all recorded values are at or below.
+     * @return Returns the 75th percentile.
+     */
+    double getPercentile75();
+
+    /**
+     * Getter for the value 95 percent of all recorded values are at or below.
+     * @return Returns the 95th percentile.
+     */
+    double getPercentile95();
+
+    /**
+     * Getter for the value 99 percent of all recorded values are at or below.
+     * @return Returns the 99th percentile.
+     */
+    double getPercentile99();
+
+    /**
+     * Getter for the value 99.9 percent of all recorded values are at or below.
+     * @return Returns the 99.9th percentile.
+     */
+    double getPercentile999();
+
+    /**
+     * Forgets all recorded values.
+     */
+    void reset();
+}
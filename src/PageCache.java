@@ -0,0 +1,210 @@
+import org.jsoup.HttpStatusException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Class that keeps a persistent on-disk cache of fetched web pages, keyed by URL. Every cached page is stored as its
+ * raw body together with the ETag and Last-Modified headers of the response. A page younger than the configured max
+ * age ({@link Settings#PAGE_CACHE_MAX_AGE_MINUTES}) is served straight from disk, an older page is revalidated with a
+ * conditional request and only downloaded again if the server reports that it has changed. Pages are downloaded
+ * through the shared {@link HttpFetcher}. Each cache is kept within a budget of bytes on disk, evicting the least
+ * recently used pages first. Calendar pages and the pages of single titles, which are many more, are kept in
+ * separate caches, so the title pages can't push the calendar pages out.
+ */
+public final class PageCache {
+    private static final int DEFAULT_MAX_AGE_MINUTES = 15;
+    private static final int DEFAULT_DISK_BUDGET_MB = 50;
+    private static final int DEFAULT_DETAIL_DISK_BUDGET_MB = 100;
+    private static final PageCache SHARED = new PageCache(
+            Settings.getDataDirectory().resolve("cache").resolve("pages"),
+            Duration.ofMinutes(Settings.getInt(Settings.PAGE_CACHE_MAX_AGE_MINUTES, DEFAULT_MAX_AGE_MINUTES)),
+            Settings.getInt(Settings.PAGE_CACHE_DISK_BUDGET_MB, DEFAULT_DISK_BUDGET_MB) * 1024L * 1024L);
+    private static final PageCache DETAILS = new PageCache(
+            Settings.getDataDirectory().resolve("cache").resolve("details"),
+            Duration.ofMinutes(Settings.getInt(Settings.PAGE_CACHE_MAX_AGE_MINUTES, DEFAULT_MAX_AGE_MINUTES)),
+            Settings.getInt(Settings.DETAIL_CACHE_DISK_BUDGET_MB, DEFAULT_DETAIL_DISK_BUDGET_MB) * 1024L * 1024L);
+
+    private final Path directory;
+    private final Duration maxAge;
+    private final DiskBudget diskBudget;
+
+    /**
+     * Record for a page returned by the cache.
+     * @param url URL of the page.
+     * @param body Raw bytes of the page.
+     * @param charset Charset of the body, or null if the server didn't specify one.
+     * @param modified False if the body is the same as the last time the page was handed out by this cache.
+     */
+    public record Page(String url, byte[] body, String charset, boolean modified) {
+    }
+
+    /**
+     * Constructor that sets up where pages are stored, for how long they are considered fresh and how much they may
+     * use.
+     * @param directory Directory for the cached pages.
+     * @param maxAge Time during which a cached page is served without contacting the server.
+     * @param diskBudget Largest number of bytes of pages kept on disk.
+     */
+    public PageCache(Path directory, Duration maxAge, long diskBudget) {
+        this.directory = directory;
+        this.maxAge = maxAge;
+        this.diskBudget = new DiskBudget(directory, diskBudget);
+    }
+
+    /**
+     * Getter for the page cache of calendar pages shared by the whole program.
+     * @return Returns the shared page cache.
+     */
+    public static PageCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Getter for the page cache of the IMDB pages of single titles, used when enriching Content with details.
+     * @return Returns the page cache of title pages.
+     */
+    public static PageCache details() {
+        return DETAILS;
+    }
+
+    /**
+     * Fetches a page, from disk if the cached copy is still fresh and otherwise with a conditional request.
+     * @param url URL of the page.
+     * @return Returns the page.
+     * @throws IOException If the page couldn't be fetched and no cached copy exists.
+     */
+    public Page fetch(String url) throws IOException {
+        return fetch(url, false);
+    }
+
+    /**
+     * Fetches a page. When revalidating, the server is always asked whether the page has changed, however fresh the
+     * cached copy is, and the cached copy is never served in place of a page that couldn't be fetched. This is used by
+     * scheduled refreshes, which would otherwise see no changes at all when they run more often than the max age.
+     * @param url URL of the page.
+     * @param revalidate True to always revalidate with the server, false to serve a fresh cached copy from disk.
+     * @return Returns the page.
+     * @throws IOException If the page couldn't be fetched and either no cached copy exists or revalidating.
+     */
+    public Page fetch(String url, boolean revalidate) throws IOException {
+        String fileName = CacheFiles.fileNameFor(url);
+        Path bodyFile = directory.resolve(fileName + ".body");
+        Path metaFile = directory.resolve(fileName + ".properties");
+        Properties meta = readMeta(metaFile);
+        boolean cached = meta != null && url.equals(meta.getProperty("url")) && Files.exists(bodyFile);
+
+        if (cached && !revalidate && isFresh(meta)) {
+            diskBudget.touch(bodyFile);
+            return new Page(url, Files.readAllBytes(bodyFile), meta.getProperty("charset"), false);
+        }
+
+        Map<String, String> headers = new HashMap<>();
+        if (cached) {
+            if (meta.getProperty("etag") != null) {
+                headers.put("If-None-Match", meta.getProperty("etag"));
+            }
+            if (meta.getProperty("lastModified") != null) {
+                headers.put("If-Modified-Since", meta.getProperty("lastModified"));
+            }
+        }
+
+        HttpFetcher.Response response;
+        try {
+            response = HttpFetcher.shared().get(url, headers);
+        } catch (IOException e) {
+            if (cached && !revalidate) {
+                System.out.println("IOException, serving cached page: " + e.getMessage());
+                return new Page(url, Files.readAllBytes(bodyFile), meta.getProperty("charset"), false);
+            }
+            throw e;
+        }
+
+        if (response.statusCode() == 304 && cached) {
+            meta.setProperty("fetchedAt", Long.toString(System.currentTimeMillis()));
+            writeMeta(metaFile, meta);
+            diskBudget.touch(bodyFile);
+            return new Page(url, Files.readAllBytes(bodyFile), meta.getProperty("charset"), false);
+        }
+        if (response.statusCode() != 200) {
+            if (cached && !revalidate) {
+                return new Page(url, Files.readAllBytes(bodyFile), meta.getProperty("charset"), false);
+            }
+            throw new HttpStatusException("HTTP error fetching URL", response.statusCode(), url);
+        }
+
+        byte[] body = response.body();
+        Properties newMeta = new Properties();
+        newMeta.setProperty("url", url);
+        newMeta.setProperty("fetchedAt", Long.toString(System.currentTimeMillis()));
+        if (response.header("ETag") != null) {
+            newMeta.setProperty("etag", response.header("ETag"));
+        }
+        if (response.header("Last-Modified") != null) {
+            newMeta.setProperty("lastModified", response.header("Last-Modified"));
+        }
+        if (response.charset() != null) {
+            newMeta.setProperty("charset", response.charset());
+        }
+        try {
+            long replacedBytes = DiskBudget.sizeOf(bodyFile) + DiskBudget.sizeOf(metaFile);
+            CacheFiles.writeAtomically(bodyFile, body);
+            writeMeta(metaFile, newMeta);
+            diskBudget.written(Files.size(bodyFile) + Files.size(metaFile), replacedBytes);
+        } catch (IOException e) {
+            System.out.println("IOException, couldn't cache page: " + e.getMessage());
+        }
+        return new Page(url, body, response.charset(), true);
+    }
+
+    /**
+     * Checks whether a cached page is young enough to be served without contacting the server.
+     * @param meta Metadata of the cached page.
+     * @return Returns true if the page is fresh.
+     */
+    private boolean isFresh(Properties meta) {
+        try {
+            long fetchedAt = Long.parseLong(meta.getProperty("fetchedAt", "0"));
+            return System.currentTimeMillis() - fetchedAt < maxAge.toMillis();
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reads metadata of a cached page.
+     * @param metaFile File holding the metadata.
+     * @return Returns the metadata, or null if there is none.
+     */
+    private Properties readMeta(Path metaFile) {
+        if (!Files.exists(metaFile)) {
+            return null;
+        }
+        Properties meta = new Properties();
+        try (InputStream in = Files.newInputStream(metaFile)) {
+            meta.load(in);
+            return meta;
+        } catch (IOException e) {
+            System.out.println("IOException: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes metadata of a cached page.
+     * @param metaFile File to hold the metadata.
+     * @param meta Metadata to be written.
+     * @throws IOException If the file couldn't be written.
+     */
+    private void writeMeta(Path metaFile, Properties meta) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        meta.store(bytes, null);
+        CacheFiles.writeAtomically(metaFile, bytes.toByteArray());
+    }
+}
@@ -0,0 +1,97 @@
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Class that holds the metrics of every stage of the program, from fetching pages to sending emails. Each metric is
+ * registered as an MBean of the platform MBean server under the domain {@value #DOMAIN} when the class is first used,
+ * so the metrics can be watched live in JConsole or VisualVM. Durations are recorded in nanoseconds and shown in
+ * milliseconds.
+ */
+public final class PipelineMetrics {
+    private static final String DOMAIN = "ReleaseDateTracker";
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    /** Time from sending a request until the whole body is read or the fetch fails, of every page and poster. */
+    public static final MetricHistogram FETCH_LATENCY = timer("FetchLatency");
+    /** Size of the decompressed body of every page and poster fetched. */
+    public static final MetricHistogram FETCH_BYTES = histogram("FetchBytes", "bytes");
+    /** Number of fetches that failed or timed out before the whole body was read. */
+    public static final MetricCounter FETCH_FAILURES = counter("FetchFailures");
+    /** Time spent parsing a calendar page and extracting its Content. */
+    public static final MetricHistogram PARSE_TIME = timer("ParseTime");
+    /** Number of titles extracted from each Article-element of a calendar page. */
+    public static final MetricHistogram TITLES_PER_ARTICLE = histogram("TitlesPerArticle", "titles");
+    /** Time to load a poster that isn't in memory, from the disk cache or the network, including decoding. */
+    public static final MetricHistogram POSTER_LOAD_TIME = timer("PosterLoadTime");
+    /** Time to map all Content of one type by genre, for search and by release date. */
+    public static final MetricHistogram GENRE_MAPPING_TIME = timer("GenreMappingTime");
+    /** Time to hand one email to the SMTP server, of every email that was sent. */
+    public static final MetricHistogram EMAIL_SEND_TIME = timer("EmailSendTime");
+    /** Number of emails accepted by the SMTP server, counted once per email. */
+    public static final MetricCounter EMAILS_SENT = counter("EmailsSent");
+    /** Number of emails that were never sent, counted once per email, including queued emails given up on. */
+    public static final MetricCounter EMAILS_FAILED = counter("EmailsFailed");
+    /** Number of failed attempts to send an email that were followed by another attempt. */
+    public static final MetricCounter EMAIL_RETRIES = counter("EmailRetries");
+    /** Number of queued emails given up on, after failing too many times or in a way retrying can't fix. */
+    public static final MetricCounter EMAILS_DROPPED = counter("EmailsDropped");
+
+    private PipelineMetrics() {
+    }
+
+    /**
+     * Creates and registers a histogram of durations.
+     * @param name Name of the metric.
+     * @return Returns the histogram.
+     */
+    private static MetricHistogram timer(String name) {
+        MetricHistogram histogram = new MetricHistogram("ms", NANOS_PER_MILLI);
+        register("Timer", name, histogram);
+        return histogram;
+    }
+
+    /**
+     * Creates and registers a histogram.
+     * @param name Name of the metric.
+     * @param unit Unit of the values.
+     * @return Returns the histogram.
+     */
+    private static MetricHistogram histogram(String name, String unit) {
+        MetricHistogram histogram = new MetricHistogram(unit, 1);
+        register("Histogram", name, histogram);
+        return histogram;
+    }
+
+    /**
+     * Creates and registers a counter.
+     * @param name Name of the metric.
+     * @return Returns the counter.
+     */
+    private static MetricCounter counter(String name) {
+        MetricCounter counter = new MetricCounter();
+        register("Counter", name, counter);
+        return counter;
+    }
+
+    /**
+     * Registers a metric with the platform MBean server. A metric that can't be registered is still recorded, it just
+     * can't be watched.
+     * @param type Type of the metric, which groups metrics in JConsole.
+     * @param name Name of the metric.
+     * @param metric The metric.
+     */
+    private static void register(String type, String name, Object metric) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(DOMAIN + ":type=" + type + ",name=" + name);
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(metric, objectName);
+        } catch (JMException | SecurityException e) {
+            System.out.println("Couldn't register metric " + name + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,195 @@
+import javafx.scene.image.Image;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Class that caches posters in two tiers, keyed by poster URL. The first tier keeps decoded images in memory in least
+ * recently used order, within a budget of bytes ({@link Settings#POSTER_MEMORY_BUDGET_MB}). The images are held by soft
+ * references, so the garbage collector can still reclaim them when memory runs low. The second tier keeps the raw bytes
+ * of every downloaded poster on disk, so that posters survive restarts, within its own budget
+ * ({@link Settings#POSTER_DISK_BUDGET_MB}), which is checked on every write through a {@link DiskBudget}.
+ */
+public final class PosterCache {
+    private static final int DEFAULT_MEMORY_BUDGET_MB = 32;
+    private static final int DEFAULT_DISK_BUDGET_MB = 200;
+    private static final PosterCache SHARED = new PosterCache(
+            Settings.getDataDirectory().resolve("cache").resolve("posters"),
+            Settings.getInt(Settings.POSTER_MEMORY_BUDGET_MB, DEFAULT_MEMORY_BUDGET_MB) * 1024L * 1024L,
+            Settings.getInt(Settings.POSTER_DISK_BUDGET_MB, DEFAULT_DISK_BUDGET_MB) * 1024L * 1024L);
+
+    private final Path directory;
+    private final long memoryBudget;
+    private final DiskBudget diskBudget;
+    private final Map<String, CachedImage> memory = new LinkedHashMap<>(64, 0.75f, true);
+    private long memoryBytes = 0;
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Record for a decoded image held by the memory tier.
+     * @param image Soft reference to the image.
+     * @param bytes Estimated number of bytes used by the decoded pixels.
+     */
+    private record CachedImage(SoftReference<Image> image, long bytes) {
+    }
+
+    /**
+     * Constructor that sets up where posters are stored and how much they may use.
+     * @param directory Directory for the raw poster bytes.
+     * @param memoryBudget Maximum number of bytes of decoded images kept in memory.
+     * @param diskBudget Maximum number of bytes of posters kept on disk.
+     */
+    public PosterCache(Path directory, long memoryBudget, long diskBudget) {
+        this.directory = directory;
+        this.memoryBudget = memoryBudget;
+        this.diskBudget = new DiskBudget(directory, diskBudget);
+    }
+
+    /**
+     * Getter for the poster cache shared by the whole program.
+     * @return Returns the shared poster cache.
+     */
+    public static PosterCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Looks up a decoded poster in memory.
+     * @param url URL of the poster.
+     * @return Returns the poster, or null if it isn't held in memory.
+     */
+    public synchronized Image getFromMemory(String url) {
+        CachedImage cached = memory.get(url);
+        if (cached == null) {
+            return null;
+        }
+        Image image = cached.image().get();
+        if (image == null) {
+            memory.remove(url);
+            memoryBytes -= cached.bytes();
+            return null;
+        }
+        memoryHits.incrementAndGet();
+        return image;
+    }
+
+    /**
+     * Puts a decoded poster in memory, evicting the least recently used posters if the budget is exceeded.
+     * @param url URL of the poster.
+     * @param image The decoded poster.
+     */
+    public synchronized void putInMemory(String url, Image image) {
+        long bytes = (long) image.getWidth() * (long) image.getHeight() * 4;
+        CachedImage previous = memory.put(url, new CachedImage(new SoftReference<>(image), bytes));
+        if (previous != null) {
+            memoryBytes -= previous.bytes();
+        }
+        memoryBytes += bytes;
+
+        Iterator<Map.Entry<String, CachedImage>> iterator = memory.entrySet().iterator();
+        while (memoryBytes > memoryBudget && iterator.hasNext()) {
+            Map.Entry<String, CachedImage> eldest = iterator.next();
+            if (eldest.getKey().equals(url)) {
+                continue;
+            }
+            memoryBytes -= eldest.getValue().bytes();
+            iterator.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Reads the raw bytes of a poster from disk.
+     * @param url URL of the poster.
+     * @return Returns the bytes, or null if the poster isn't stored on disk.
+     */
+    public byte[] getFromDisk(String url) {
+        Path file = fileFor(url);
+        try {
+            if (Files.exists(file)) {
+                byte[] bytes = Files.readAllBytes(file);
+                diskBudget.touch(file);
+                diskHits.incrementAndGet();
+                return bytes;
+            }
+        } catch (IOException e) {
+            System.out.println("IOException: " + e.getMessage());
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Stores the raw bytes of a downloaded poster on disk, evicting the least recently used posters if the disk budget is
+     * exceeded.
+     * @param url URL of the poster.
+     * @param bytes The downloaded bytes.
+     */
+    public void putOnDisk(String url, byte[] bytes) {
+        Path file = fileFor(url);
+        try {
+            long replacedBytes = DiskBudget.sizeOf(file);
+            CacheFiles.writeAtomically(file, bytes);
+            diskBudget.written(bytes.length, replacedBytes);
+        } catch (IOException e) {
+            System.out.println("IOException, couldn't cache poster: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Getter for the number of posters found in memory.
+     * @return Returns the number of memory hits.
+     */
+    public long getMemoryHits() {
+        return memoryHits.get();
+    }
+
+    /**
+     * Getter for the number of posters found on disk.
+     * @return Returns the number of disk hits.
+     */
+    public long getDiskHits() {
+        return diskHits.get();
+    }
+
+    /**
+     * Getter for the number of posters found in neither tier, which had to be downloaded.
+     * @return Returns the number of misses.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Getter for the number of posters evicted from memory because of the budget.
+     * @return Returns the number of evictions.
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * Getter for the estimated number of bytes of decoded posters currently held in memory.
+     * @return Returns the number of bytes.
+     */
+    public synchronized long getMemoryBytes() {
+        return memoryBytes;
+    }
+
+    /**
+     * Gets the file where the bytes of a poster are stored.
+     * @param url URL of the poster.
+     * @return Returns the path of the file.
+     */
+    private Path fileFor(String url) {
+        return directory.resolve(CacheFiles.fileNameFor(url) + ".img");
+    }
+}
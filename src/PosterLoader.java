@@ -0,0 +1,213 @@
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.function.Consumer;
+
+/**
+ * Class that loads posters in the background on the shared {@link BackgroundExecutor}, so that downloading and
+ * decoding a poster never happens on the JavaFX application thread or as part of a scrape. Posters are looked up in
+ * the {@link PosterCache} before they are downloaded, and are decoded at the size they are displayed at unless the full
+ * size is asked for. Requests for a poster that is already being loaded at the same size share that load instead of
+ * downloading and decoding the poster again, without holding a thread while they wait.
+ */
+public final class PosterLoader {
+    private static final int FULL_SIZE = 0;
+    private static final PosterLoader SHARED = new PosterLoader(PosterCache.shared());
+
+    private final PosterCache cache;
+    private final ConcurrentHashMap<String, CompletableFuture<Image>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor that sets up the cache used by the loader.
+     * @param cache Cache for loaded posters.
+     */
+    private PosterLoader(PosterCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Getter for the poster loader shared by the whole program.
+     * @return Returns the shared poster loader.
+     */
+    public static PosterLoader shared() {
+        return SHARED;
+    }
+
+    /**
+     * Method that loads a poster decoded at thumbnail size. A poster held in memory is handed over right away, any other
+     * poster is read from disk or downloaded in the background.
+     * @param url URL of the poster.
+     * @param width Width in pixels the poster should be decoded at (the height keeps the aspect ratio).
+     * @param onLoaded Callback run on the JavaFX application thread with the loaded poster, unless the load is
+     *                 cancelled or fails.
+     * @return Returns a Future that can be cancelled if the poster is no longer needed.
+     */
+    public Future<Image> loadThumbnail(String url, int width, Consumer<Image> onLoaded) {
+        return load(url, width, onLoaded);
+    }
+
+    /**
+     * Method that loads a poster decoded at its full size, for when a poster is to be displayed large.
+     * @param url URL of the poster.
+     * @param onLoaded Callback run on the JavaFX application thread with the loaded poster, unless the load is
+     *                 cancelled or fails.
+     * @return Returns a Future that can be cancelled if the poster is no longer needed.
+     */
+    public Future<Image> loadFullSize(String url, Consumer<Image> onLoaded) {
+        return load(url, FULL_SIZE, onLoaded);
+    }
+
+    /**
+     * Loads a poster at a given size, from memory right away or otherwise in the background. A poster that is already
+     * being loaded at the same size isn't loaded again, the callback is instead run once that load is done.
+     * @param url URL of the poster.
+     * @param width Width to decode the poster at, or {@link #FULL_SIZE}.
+     * @param onLoaded Callback run on the JavaFX application thread with the loaded poster.
+     * @return Returns a Future that can be cancelled if the poster is no longer needed. Cancelling it only drops the
+     * callback, the poster is still loaded into the cache for anyone else waiting for it.
+     */
+    private Future<Image> load(String url, int width, Consumer<Image> onLoaded) {
+        String cacheKey = cacheKey(url, width);
+        Image cachedImage = cache.getFromMemory(cacheKey);
+        if (cachedImage != null) {
+            onLoaded.accept(cachedImage);
+            return CompletableFuture.completedFuture(cachedImage);
+        }
+
+        //A future of its own, so cancelling it doesn't cancel the shared load
+        CompletableFuture<Image> request = sharedLoad(url, width, cacheKey).thenApply(image -> image);
+        request.thenAccept(image -> {
+            if (image != null) {
+                Platform.runLater(() -> onLoaded.accept(image));
+            }
+        });
+        return request;
+    }
+
+    /**
+     * Gets the load in progress of a poster at a size, or starts one on the shared {@link BackgroundExecutor}. The load
+     * is shared by every request for the poster at that size, and is never interrupted when a request is cancelled.
+     * @param url URL of the poster.
+     * @param width Width to decode the poster at, or {@link #FULL_SIZE}.
+     * @param cacheKey Key of the decoded poster in the memory tier.
+     * @return Returns a future that completes with the decoded poster, or null if it couldn't be loaded.
+     */
+    private CompletableFuture<Image> sharedLoad(String url, int width, String cacheKey) {
+        CompletableFuture<Image> loading = new CompletableFuture<>();
+        CompletableFuture<Image> current = inFlight.putIfAbsent(cacheKey, loading);
+        if (current != null) {
+            return current;
+        }
+        BackgroundExecutor.shared().execute(new SharedLoad(url, width, cacheKey, loading));
+        return loading;
+    }
+
+    /**
+     * Inner class for a load shared by every request for a poster at one size. It completes the future the requests
+     * depend on when it is done, also when it was cancelled because the executor rejected or dropped it.
+     */
+    private final class SharedLoad extends FutureTask<Image> {
+        private final String cacheKey;
+        private final CompletableFuture<Image> loading;
+
+        /**
+         * Constructor that sets up the load.
+         * @param url URL of the poster.
+         * @param width Width to decode the poster at, or {@link #FULL_SIZE}.
+         * @param cacheKey Key of the decoded poster in the memory tier.
+         * @param loading Future completed with the result of the load.
+         */
+        SharedLoad(String url, int width, String cacheKey, CompletableFuture<Image> loading) {
+            super(() -> readImage(url, width, cacheKey));
+            this.cacheKey = cacheKey;
+            this.loading = loading;
+        }
+
+        /**
+         * Completes the future of the requests, and lets the next request for the poster start a load of its own.
+         */
+        @Override
+        protected void done() {
+            inFlight.remove(cacheKey, loading);
+            try {
+                loading.complete(get());
+            } catch (CancellationException e) {
+                loading.cancel(false);
+            } catch (ExecutionException e) {
+                loading.completeExceptionally(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                loading.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Loads a poster from the caches, or downloads it if it isn't cached, and decodes it. Thumbnails are decoded
+     * directly at the requested width with smooth scaling, so the full size pixels are never held in memory.
+     * @param url URL of the poster.
+     * @param width Width to decode the poster at, or {@link #FULL_SIZE}.
+     * @param cacheKey Key of the decoded poster in the memory tier.
+     * @return Returns the decoded poster, or null if it couldn't be loaded.
+     */
+    private Image readImage(String url, int width, String cacheKey) {
+        Image image = cache.getFromMemory(cacheKey);
+        if (image != null) {
+            return image;
+        }
+        long start = System.nanoTime();
+        byte[] bytes = cache.getFromDisk(url);
+        if (bytes == null) {
+            try {
+                bytes = download(url);
+            } catch (IOException e) {
+                System.out.println("IOException: " + e.getMessage());
+                return null;
+            }
+            cache.putOnDisk(url, bytes);
+        }
+        if (width == FULL_SIZE) {
+            image = new Image(new ByteArrayInputStream(bytes));
+        } else {
+            image = new Image(new ByteArrayInputStream(bytes), width, 0, true, true);
+        }
+        if (image.isError()) {
+            System.out.println("Couldn't load poster: " + url);
+            return null;
+        }
+        cache.putInMemory(cacheKey, image);
+        PipelineMetrics.POSTER_LOAD_TIME.recordSince(start);
+        return image;
+    }
+
+    /**
+     * Creates the key of a decoded poster in the memory tier, as the same poster can be held at several sizes.
+     * @param url URL of the poster.
+     * @param width Width the poster is decoded at.
+     * @return Returns the key.
+     */
+    private static String cacheKey(String url, int width) {
+        return width == FULL_SIZE ? url : url + "@" + width;
+    }
+
+    /**
+     * Downloads the raw bytes of a poster through the shared {@link HttpFetcher}.
+     * @param url URL of the poster.
+     * @return Returns the downloaded bytes.
+     * @throws IOException If the poster couldn't be downloaded.
+     */
+    private static byte[] download(String url) throws IOException {
+        HttpFetcher.Response response = HttpFetcher.shared().get(url);
+        if (response.statusCode() != 200) {
+            throw new IOException("HTTP error " + response.statusCode() + " fetching poster: " + url);
+        }
+        return response.body();
+    }
+}
@@ -1,31 +1,116 @@
+import javafx.geometry.Insets;
+import javafx.scene.Scene;
 import javafx.scene.control.TableCell;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+import javafx.stage.Modality;
+import javafx.stage.Screen;
+import javafx.stage.Stage;
+import java.util.concurrent.Future;
 
 /**
- * Class extending TableCell in order to manage the populating of images inside a TableView.
+ * Class extending TableCell in order to manage the populating of images inside a TableView. Since the TableView only
+ * creates cells for visible rows, posters are only loaded for rows that are actually displayed. A placeholder is
+ * shown until the poster has been loaded in the background. Posters are decoded at the width of the column, or twice
+ * that on HiDPI screens, rather than at their full size.
  */
-public class PosterTableCell extends TableCell<Content, Image> {
+public class PosterTableCell extends TableCell<Content, String> {
     private static final int COLUMN_SIZE = 35;
+    private static final int PLACEHOLDER_HEIGHT = 52;
+    private static final Image PLACEHOLDER = createPlaceholder();
+    private static final int THUMBNAIL_WIDTH = Screen.getPrimary().getOutputScaleX() > 1 ? COLUMN_SIZE * 2 : COLUMN_SIZE;
 
     private final ImageView imageView = new ImageView();
+    private String posterUrl;
+    private Future<Image> pendingLoad;
 
     /**
-     * Method that handles the updating of Items inside the TableView by setting the image as necessary.
-     * @param image Image to be displayed.
+     * Constructor that sets up the ImageView of the cell. Double-clicking a poster shows it in full size.
+     */
+    public PosterTableCell() {
+        imageView.setFitWidth(COLUMN_SIZE);
+        imageView.setPreserveRatio(true);
+        imageView.setSmooth(true);
+        setOnMouseClicked(e -> {
+            if (e.getClickCount() == 2 && posterUrl != null) {
+                showFullSizePoster(posterUrl);
+            }
+        });
+    }
+
+    /**
+     * Method that handles the updating of Items inside the TableView. Cancels the loading of a poster the cell no longer
+     * displays and starts loading the poster of the new item.
+     * @param url URL of the poster to be displayed.
      * @param empty Signals of the cell is empty.
      */
     @Override
-    protected void updateItem(Image image, boolean empty) {
-        super.updateItem(image, empty);
+    protected void updateItem(String url, boolean empty) {
+        super.updateItem(url, empty);
 
-        if (empty || image == null) {
+        if (empty || url == null || url.isEmpty()) {
+            cancelPendingLoad();
+            posterUrl = null;
             setGraphic(null);
-        } else {
-            imageView.setImage(image);
-            imageView.setFitWidth(COLUMN_SIZE);
-            imageView.setPreserveRatio(true);
+        } else if (!url.equals(posterUrl)) {
+            cancelPendingLoad();
+            posterUrl = url;
+            imageView.setImage(PLACEHOLDER);
             setGraphic(imageView);
+            pendingLoad = PosterLoader.shared().loadThumbnail(url, THUMBNAIL_WIDTH, image -> {
+                if (url.equals(posterUrl)) {
+                    imageView.setImage(image);
+                    pendingLoad = null;
+                }
+            });
+        }
+    }
+
+    /**
+     * Shows a poster in full size in a popup. The full size poster is only loaded when it's asked for.
+     * @param url URL of the poster.
+     */
+    private void showFullSizePoster(String url) {
+        ImageView fullSizeView = new ImageView(PLACEHOLDER);
+        fullSizeView.setPreserveRatio(true);
+        Stage popupStage = new Stage();
+        popupStage.initModality(Modality.APPLICATION_MODAL);
+        StackPane popupRoot = new StackPane(fullSizeView);
+        popupRoot.setPadding(new Insets(10));
+        popupStage.setScene(new Scene(popupRoot));
+        popupStage.show();
+        PosterLoader.shared().loadFullSize(url, image -> {
+            fullSizeView.setImage(image);
+            popupStage.sizeToScene();
+        });
+    }
+
+    /**
+     * Cancels the loading of the poster currently being loaded for this cell, if any.
+     */
+    private void cancelPendingLoad() {
+        if (pendingLoad != null) {
+            pendingLoad.cancel(true);
+            pendingLoad = null;
+        }
+    }
+
+    /**
+     * Creates the grey image displayed while a poster is loading.
+     * @return Returns the placeholder image.
+     */
+    private static Image createPlaceholder() {
+        WritableImage placeholder = new WritableImage(COLUMN_SIZE, PLACEHOLDER_HEIGHT);
+        PixelWriter pixelWriter = placeholder.getPixelWriter();
+        for (int x = 0; x < COLUMN_SIZE; x++) {
+            for (int y = 0; y < PLACEHOLDER_HEIGHT; y++) {
+                pixelWriter.setColor(x, y, Color.LIGHTGREY);
+            }
         }
+        return placeholder;
     }
 }
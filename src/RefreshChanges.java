@@ -0,0 +1,92 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Record for the changes found by a refresh that are worth notifying the user about: new titles, titles whose release
+ * date has moved and titles that are no longer listed. Other changes, such as a new poster or cast, are applied
+ * silently.
+ * @param contentType The type of the Content (movie or tv-show).
+ * @param added Content that is new since the previous scrape.
+ * @param rescheduled Content whose release date, in any region, has moved since the previous scrape.
+ * @param removed Content that is no longer listed.
+ */
+public record RefreshChanges(String contentType, List<Content> added, List<ContentDiff.Update> rescheduled,
+                             List<Content> removed) {
+
+    /**
+     * Picks the relevant changes out of the difference between two scrapes.
+     * @param contentType The type of the Content.
+     * @param diff The difference between the previous and the new scrape.
+     * @return Returns the relevant changes.
+     */
+    public static RefreshChanges of(String contentType, ContentDiff diff) {
+        List<ContentDiff.Update> rescheduled = new ArrayList<>();
+        for (ContentDiff.Update update : diff.getUpdated()) {
+            if (!Objects.equals(update.previous().releaseDate(), update.current().releaseDate())
+                    || !update.previous().regionalReleaseDates().equals(update.current().regionalReleaseDates())) {
+                rescheduled.add(update);
+            }
+        }
+        return new RefreshChanges(contentType, List.copyOf(diff.getAdded()), List.copyOf(rescheduled),
+                List.copyOf(diff.getRemoved()));
+    }
+
+    /**
+     * Checks whether there is anything to notify about.
+     * @return Returns true if any title was added, rescheduled or removed.
+     */
+    public boolean isRelevant() {
+        return count() > 0;
+    }
+
+    /**
+     * Counts the changed titles.
+     * @return Returns the number of added, rescheduled and removed titles.
+     */
+    public int count() {
+        return added.size() + rescheduled.size() + removed.size();
+    }
+
+    /**
+     * Builds a readable summary of the changes, for example for a notification email.
+     * @return Returns the summary, with one line per changed title.
+     */
+    public String describe() {
+        StringBuilder sb = new StringBuilder();
+        String typeName = contentType.toLowerCase() + "s";
+        if (!added.isEmpty()) {
+            sb.append("New ").append(typeName).append(":\n");
+            for (Content c : added) {
+                sb.append("  ").append(c.title()).append(", ").append(c.releaseDate()).append('\n');
+            }
+        }
+        if (!rescheduled.isEmpty()) {
+            sb.append("Rescheduled ").append(typeName).append(":\n");
+            for (ContentDiff.Update update : rescheduled) {
+                sb.append("  ").append(update.current().title()).append(", ")
+                        .append(describeDates(update.previous())).append(" -> ")
+                        .append(describeDates(update.current())).append('\n');
+            }
+        }
+        if (!removed.isEmpty()) {
+            sb.append("Removed ").append(typeName).append(":\n");
+            for (Content c : removed) {
+                sb.append("  ").append(c.title()).append(", ").append(c.releaseDate()).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Describes the release dates of a Content.
+     * @param content The Content.
+     * @return Returns the release date of every region if there are several, otherwise the release date.
+     */
+    private static String describeDates(Content content) {
+        if (content.regionalReleaseDates().size() > 1) {
+            return content.getRegionalReleaseDates();
+        }
+        return String.valueOf(content.releaseDate());
+    }
+}
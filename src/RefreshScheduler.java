@@ -0,0 +1,231 @@
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+
+/**
+ * Class that scrapes again at a regular interval, on a thread of its own, without depending on JavaFX. Only content
+ * types that have a baseline, the Content last shown to the user, or that are {@link #watch watched} are refreshed.
+ * Every page is revalidated with the server, so a refresh sees changes even when it runs more often than pages are
+ * cached by the {@link PageCache}. Each refresh is compared against the baseline, and the {@link Listener} is told about
+ * the new Content along with the changes worth notifying about. If an email address is set in
+ * {@link Settings#REFRESH_NOTIFY_EMAIL}, relevant changes are also sent there through the {@link EmailOutbox}.
+ * Every delay is spread by a random jitter, so that several instances don't fetch at the same moment, and when a page
+ * can't be fetched the delay is doubled for every failure in a row, up to {@value #MAX_BACKOFF_FACTOR} times the
+ * interval. A failed scrape never replaces the baseline, so a partial result isn't mistaken for removed titles.
+ */
+public class RefreshScheduler {
+    private static final int DEFAULT_JITTER_PERCENT = 10;
+    private static final int MAX_BACKOFF_FACTOR = 8;
+    private static final String NOTIFY_SUBJECT = "Changes in upcoming releases";
+
+    private final Duration interval;
+    private final double jitter;
+    private final Listener listener;
+    private final String notifyEmail;
+    private final CalendarScraper scraper = new CalendarScraper(true);
+    private final Map<String, List<Content>> baselines = new ConcurrentHashMap<>();
+    private final Set<String> watched = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    private ScheduledExecutorService timer;
+    private int failures = 0;
+
+    /**
+     * Interface for receiving the results of scheduled refreshes. The methods are called on the thread of the
+     * scheduler, so a listener that updates a GUI has to hand the calls over to the GUI thread itself.
+     */
+    public interface Listener {
+
+        /**
+         * Called when a content type has been refreshed, whether or not anything changed.
+         * @param contentType The type of the Content (movie or tv-show).
+         * @param data All Content of the type, with unchanged Content kept as its previous instance.
+         * @param changes The changes worth notifying about.
+         */
+        void onRefreshed(String contentType, List<Content> data, RefreshChanges changes);
+
+        /**
+         * Called when the first refresh of a watched content type without a baseline has become its baseline. There is
+         * nothing to compare that refresh against, so it is not reported as changes.
+         * @param contentType The type of the Content (movie or tv-show).
+         * @param data All Content of the type.
+         */
+        default void onBaseline(String contentType, List<Content> data) {
+        }
+
+        /**
+         * Called when a refresh failed and the next one has been pushed back.
+         * @param failures Number of failed refreshes in a row.
+         * @param retryIn Time until the next refresh.
+         */
+        default void onFailed(int failures, Duration retryIn) {
+        }
+    }
+
+    /**
+     * Constructor that sets up a scheduler.
+     * @param interval Time between refreshes, before jitter.
+     * @param jitterPercent How much each delay is spread, in percent of the delay.
+     * @param notifyEmail Email address relevant changes are sent to, or an empty string to not send any.
+     * @param listener Receives the result of each refresh.
+     */
+    public RefreshScheduler(Duration interval, int jitterPercent, String notifyEmail, Listener listener) {
+        this.interval = interval;
+        this.jitter = Math.max(0, Math.min(100, jitterPercent)) / 100.0;
+        this.notifyEmail = notifyEmail;
+        this.listener = listener;
+    }
+
+    /**
+     * Sets up a scheduler with the interval, jitter and notification address from {@link Settings}.
+     * @param defaultIntervalMinutes Interval used when none is set, where 0 turns scheduled refresh off.
+     * @param listener Receives the result of each refresh.
+     * @return Returns the scheduler, or null if scheduled refresh is turned off.
+     */
+    public static RefreshScheduler fromSettings(int defaultIntervalMinutes, Listener listener) {
+        int minutes = Settings.getInt(Settings.REFRESH_INTERVAL_MINUTES, defaultIntervalMinutes);
+        if (minutes <= 0) {
+            return null;
+        }
+        return new RefreshScheduler(Duration.ofMinutes(minutes),
+                Settings.getInt(Settings.REFRESH_JITTER_PERCENT, DEFAULT_JITTER_PERCENT),
+                Settings.getString(Settings.REFRESH_NOTIFY_EMAIL, ""), listener);
+    }
+
+    /**
+     * Sets the Content a content type is compared against on the next refresh, for example after a manual refresh.
+     * A content type is only refreshed once it has a baseline.
+     * @param contentType The type of the Content (movie or tv-show).
+     * @param data All Content of the type.
+     */
+    public void setBaseline(String contentType, List<Content> data) {
+        baselines.put(contentType, List.copyOf(data));
+        watched.add(contentType);
+    }
+
+    /**
+     * Refreshes a content type that has no baseline yet, for example because its first scrape failed. The first refresh
+     * of the type without errors becomes its baseline, and is reported through {@link Listener#onBaseline}.
+     * @param contentType The type of the Content (movie or tv-show).
+     */
+    public void watch(String contentType) {
+        watched.add(contentType);
+    }
+
+    /**
+     * Starts refreshing. The first refresh happens one interval from now.
+     */
+    public void start() {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "refresh-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduleNext(interval);
+    }
+
+    /**
+     * Stops refreshing. A refresh that is already running is interrupted.
+     */
+    public synchronized void stop() {
+        if (timer != null) {
+            timer.shutdownNow();
+        }
+    }
+
+    /**
+     * Schedules the next refresh after a delay spread by the jitter.
+     * @param delay The delay, before jitter.
+     */
+    private synchronized void scheduleNext(Duration delay) {
+        if (timer.isShutdown()) {
+            return;
+        }
+        double spread = jitter == 0 ? 1 : 1 + ThreadLocalRandom.current().nextDouble(-jitter, jitter);
+        long millis = Math.max(1000, (long) (delay.toMillis() * spread));
+        timer.schedule(this::refreshAll, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Refreshes every watched content type, then schedules the next refresh. If any page couldn't be fetched the next
+     * refresh is backed off, and content types with a failed page keep their baseline.
+     */
+    private void refreshAll() {
+        boolean failed = false;
+        for (String contentType : List.of("Movie", "Tv-show")) {
+            if (!watched.contains(contentType) || Thread.currentThread().isInterrupted()) {
+                continue;
+            }
+            List<Content> baseline = baselines.get(contentType);
+            try {
+                if (!refresh(contentType, baseline)) {
+                    failed = true;
+                }
+            } catch (RuntimeException e) {
+                System.out.println("Unexpected exception: " + e.getMessage());
+                failed = true;
+            }
+        }
+
+        if (failed) {
+            failures++;
+            Duration retryIn = interval.multipliedBy(Math.min(MAX_BACKOFF_FACTOR, 1L << Math.min(failures, 30)));
+            System.out.println("Scheduled refresh failed, retrying in " + retryIn.toMinutes() + " minutes");
+            listener.onFailed(failures, retryIn);
+            scheduleNext(retryIn);
+        } else {
+            failures = 0;
+            scheduleNext(interval);
+        }
+    }
+
+    /**
+     * Refreshes one content type and reports the result.
+     * @param contentType The type of the Content.
+     * @param baseline The Content the new scrape is compared against, or null if the type has no baseline yet.
+     * @return Returns false if any page of the content type couldn't be fetched.
+     */
+    private boolean refresh(String contentType, List<Content> baseline) {
+        boolean[] failed = {false};
+        ScrapeListener scrapeListener = new ScrapeListener() {
+            @Override
+            public void onError(String url, Exception e) {
+                failed[0] = true;
+                System.out.println("Error refreshing " + url + ": " + e.getMessage());
+            }
+        };
+        BiFunction<CalendarScraper, ScrapeListener, List<Content>> scrape =
+                contentType.equals("Movie") ? CalendarScraper::scrapeMovies : CalendarScraper::scrapeTvShows;
+        List<Content> data = scrape.apply(scraper, scrapeListener);
+        if (failed[0] || Thread.currentThread().isInterrupted()) {
+            return false;
+        }
+        if (baseline == null) {
+            //Only set if no baseline was set while scraping
+            if (baselines.putIfAbsent(contentType, List.copyOf(data)) == null) {
+                listener.onBaseline(contentType, data);
+            }
+            return true;
+        }
+
+        ContentDiff diff = ContentDiff.compute(baseline, data);
+        //Only replaced if no newer baseline was set while scraping
+        baselines.replace(contentType, baseline, List.copyOf(diff.getReconciled()));
+        RefreshChanges changes = RefreshChanges.of(contentType, diff);
+        listener.onRefreshed(contentType, diff.getReconciled(), changes);
+        if (changes.isRelevant() && !notifyEmail.isEmpty()) {
+            EmailOutbox.shared().enqueue(notifyEmail, NOTIFY_SUBJECT, changes.describe());
+        }
+        return true;
+    }
+}
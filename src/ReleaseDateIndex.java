@@ -0,0 +1,144 @@
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.time.temporal.WeekFields;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Class that indexes Content of all types by release date, so that the Content of a range of dates can be found
+ * without going through the whole catalog. The dates are kept in a sorted map, where finding the start of a range takes
+ * logarithmic time and only the dates inside the range are visited. The titles of each date are kept by IMDB id in an
+ * unmodifiable map that is replaced on every change, so the index can be read from any thread while it is updated.
+ */
+public final class ReleaseDateIndex {
+    private final ConcurrentSkipListMap<LocalDate, Map<String, Content>> byDate = new ConcurrentSkipListMap<>();
+
+    /**
+     * Adds Content to the index, replacing Content with the same IMDB id on the same date.
+     * @param data Content to be added.
+     */
+    public synchronized void addAll(Collection<Content> data) {
+        for (Map.Entry<LocalDate, Map<String, Content>> day : groupByDate(data).entrySet()) {
+            Map<String, Content> titles = new LinkedHashMap<>(byDate.getOrDefault(day.getKey(), Map.of()));
+            titles.putAll(day.getValue());
+            byDate.put(day.getKey(), Collections.unmodifiableMap(titles));
+        }
+    }
+
+    /**
+     * Replaces all Content of a type with the given Content. Content of other types is kept, and only the dates that
+     * change are replaced.
+     * @param type The type of Content (movie or tv-show).
+     * @param data All Content of the type.
+     */
+    public synchronized void replace(String type, Collection<Content> data) {
+        Map<LocalDate, Map<String, Content>> fresh = groupByDate(data);
+        for (Map.Entry<LocalDate, Map<String, Content>> day : byDate.entrySet()) {
+            Map<String, Content> current = fresh.getOrDefault(day.getKey(), Map.of());
+            Map<String, Content> titles = new LinkedHashMap<>(day.getValue());
+            boolean changed = titles.values().removeIf(c -> type.equals(c.type()) && !current.containsKey(c.getTitleId()));
+            if (titles.isEmpty()) {
+                byDate.remove(day.getKey());
+            } else if (changed) {
+                byDate.put(day.getKey(), Collections.unmodifiableMap(titles));
+            }
+        }
+        addAll(data);
+    }
+
+    /**
+     * Groups Content by release date and IMDB id. Content without a release date is left out.
+     * @param data Content to be grouped.
+     * @return Returns the Content by date, and by IMDB id within each date.
+     */
+    private static Map<LocalDate, Map<String, Content>> groupByDate(Collection<Content> data) {
+        Map<LocalDate, Map<String, Content>> grouped = new TreeMap<>();
+        for (Content c : data) {
+            if (c.releaseDate() != null) {
+                grouped.computeIfAbsent(c.releaseDate(), date -> new LinkedHashMap<>()).put(c.getTitleId(), c);
+            }
+        }
+        return grouped;
+    }
+
+    /**
+     * Finds the Content released between two dates, grouped by date.
+     * @param from First date of the range.
+     * @param to Last date of the range.
+     * @return Returns the Content of every date in the range that has any, in order of date.
+     */
+    public NavigableMap<LocalDate, List<Content>> getDays(LocalDate from, LocalDate to) {
+        NavigableMap<LocalDate, List<Content>> days = new TreeMap<>();
+        if (from.isAfter(to)) {
+            return days;
+        }
+        for (Map.Entry<LocalDate, Map<String, Content>> day : byDate.subMap(from, true, to, true).entrySet()) {
+            days.put(day.getKey(), List.copyOf(day.getValue().values()));
+        }
+        return days;
+    }
+
+    /**
+     * Finds the Content released between two dates.
+     * @param from First date of the range.
+     * @param to Last date of the range.
+     * @return Returns the Content, in order of release date.
+     */
+    public List<Content> between(LocalDate from, LocalDate to) {
+        List<Content> titles = new ArrayList<>();
+        if (from.isAfter(to)) {
+            return titles;
+        }
+        for (Map<String, Content> day : byDate.subMap(from, true, to, true).values()) {
+            titles.addAll(day.values());
+        }
+        return titles;
+    }
+
+    /**
+     * Finds the Content released in the current week, where the first day of the week follows the default locale.
+     * @return Returns the Content, in order of release date.
+     */
+    public List<Content> thisWeek() {
+        DayOfWeek firstDay = WeekFields.of(Locale.getDefault()).getFirstDayOfWeek();
+        LocalDate start = LocalDate.now().with(TemporalAdjusters.previousOrSame(firstDay));
+        return between(start, start.plusDays(6));
+    }
+
+    /**
+     * Finds the Content released from today and the given number of days ahead.
+     * @param days Number of days, including today.
+     * @return Returns the Content, in order of release date.
+     */
+    public List<Content> nextDays(int days) {
+        LocalDate today = LocalDate.now();
+        return between(today, today.plusDays(days - 1));
+    }
+
+    /**
+     * Getter for the first date that has any Content.
+     * @return Returns the date, or null if the index is empty.
+     */
+    public LocalDate getFirstDate() {
+        Map.Entry<LocalDate, Map<String, Content>> first = byDate.firstEntry();
+        return first == null ? null : first.getKey();
+    }
+
+    /**
+     * Getter for the last date that has any Content.
+     * @return Returns the date, or null if the index is empty.
+     */
+    public LocalDate getLastDate() {
+        Map.Entry<LocalDate, Map<String, Content>> last = byDate.lastEntry();
+        return last == null ? null : last.getKey();
+    }
+}
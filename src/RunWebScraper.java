@@ -1,7 +1,11 @@
+import java.util.Arrays;
+
 /**
  * This program is a web-scraper that scrapes information about upcoming releases of movies and tv-shows from IMDB.
  * The user can view all releases through a GUI, add/remove favorites, sort by title/release date, filter by genre and
  * send favorite content to an email. Ability to refresh (perform new scrape) is also available.
+ * Started with --headless, the program instead scrapes without a GUI and writes the releases to standard output or a
+ * file, see {@link HeadlessRunner}.
  */
 public class RunWebScraper {
 
@@ -10,6 +14,17 @@ public class RunWebScraper {
      * @param args For start via terminal.
      */
     public static void main(String[] args) {
+        if (Arrays.asList(args).contains("--headless")) {
+            System.exit(HeadlessRunner.run(args));
+        }
+        launchGui(args);
+    }
+
+    /**
+     * Method for launching the GUI. Kept separate from main, so JavaFX isn't loaded when running headless.
+     * @param args For start via terminal.
+     */
+    private static void launchGui(String[] args) {
         WebScraperGUI.launch(WebScraperGUI.class, args);
     }
 }
@@ -0,0 +1,31 @@
+import java.util.List;
+
+/**
+ * Interface for following a scrape by {@link CalendarScraper}. Every method has an empty default, so a listener only
+ * needs to implement what it is interested in. The methods are called on the threads doing the scraping, so a listener
+ * that updates a GUI has to hand the calls over to the GUI thread itself.
+ */
+public interface ScrapeListener {
+
+    /**
+     * Called with the Content of each processed Article-element of the first region, as soon as it is extracted.
+     * @param batch Content extracted since the last call.
+     */
+    default void onBatch(List<Content> batch) {
+    }
+
+    /**
+     * Called every time the scrape advances.
+     * @param progress Progress of the whole scrape, from 0 to 1.
+     */
+    default void onProgress(double progress) {
+    }
+
+    /**
+     * Called when a calendar page couldn't be scraped. The scrape goes on with the other regions.
+     * @param url URL of the calendar page.
+     * @param e The cause.
+     */
+    default void onError(String url, Exception e) {
+    }
+}
@@ -0,0 +1,63 @@
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import org.jsoup.select.Evaluator;
+import org.jsoup.select.QueryParser;
+
+/**
+ * Table of every CSS selector used when scraping IMDB. Each selector is compiled once when the program starts, instead
+ * of every time it's used. A selector can be swapped without touching any code by setting the system property
+ * "tracker.selector." followed by the name of the selector in lower case, for example
+ * {@code -Dtracker.selector.title_link=a.some-new-class}.
+ */
+public enum ScrapeSelector {
+    ARTICLE("article.sc-48add019-1.hSuRMl"),
+    RELEASE_DATE("h3.ipc-title__text"),
+    POSTER("img.ipc-image"),
+    SUMMARY("div.ipc-metadata-list-summary-item__tc"),
+    TITLE_LINK("a.ipc-metadata-list-summary-item__t"),
+    GENRE_LIST("ul.ipc-inline-list.ipc-inline-list--show-dividers.ipc-inline-list--no-wrap.ipc-inline-list--inline.ipc-metadata-list-summary-item__tl.base"),
+    TOP_CAST_LIST("ul.ipc-inline-list.ipc-inline-list--show-dividers.ipc-inline-list--no-wrap.ipc-inline-list--inline.ipc-metadata-list-summary-item__stl.base"),
+    DETAIL_RUNTIME("li[data-testid=title-techspec_runtime] .ipc-metadata-list-item__content-container"),
+    DETAIL_PLOT("span[data-testid=plot-xl]"),
+    DETAIL_DIRECTOR("li[data-testid=title-pc-principal-credit]:has(> .ipc-metadata-list-item__label:matchesOwn(^Directors?$)) a.ipc-metadata-list-item__list-content-item"),
+    DETAIL_CAST("a[data-testid=title-cast-item__actor]");
+
+    private final String css;
+    private final Evaluator evaluator;
+
+    /**
+     * Constructor that compiles the selector.
+     * @param defaultCss The selector used unless it is overridden by a system property.
+     */
+    ScrapeSelector(String defaultCss) {
+        this.css = Settings.getString("tracker.selector." + name().toLowerCase(), defaultCss);
+        this.evaluator = QueryParser.parse(css);
+    }
+
+    /**
+     * Getter for the selector as text.
+     * @return Returns the CSS selector.
+     */
+    public String css() {
+        return css;
+    }
+
+    /**
+     * Selects all elements matching the selector below (and including) a given element.
+     * @param root Element to search from.
+     * @return Returns the matching elements.
+     */
+    public Elements selectIn(Element root) {
+        return root.select(evaluator);
+    }
+
+    /**
+     * Checks whether a single element matches the selector.
+     * @param root Element the search started from.
+     * @param element Element to check.
+     * @return Returns true if the element matches.
+     */
+    public boolean matches(Element root, Element element) {
+        return evaluator.matches(root, element);
+    }
+}
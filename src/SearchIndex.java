@@ -0,0 +1,298 @@
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Class that indexes the words of the titles and top cast of Content for searching. Every word is folded to lower case
+ * without accents, so that "amelie" finds "Amélie", and is stored once in a sorted dictionary together with the
+ * positions of the titles it occurs in. A search term matches every word that starts with it, found by binary search in
+ * the dictionary, and every word that contains it, found through an index of the three-letter sequences (trigrams) of
+ * the words. A term that matches no word at all falls back to the words that share most of its trigrams, so small
+ * spelling mistakes still give results. The positions are the same as in the {@link GenreIndex} the search index is
+ * built from, so results can be combined with genre filters directly. An index is never changed after it is built.
+ */
+public final class SearchIndex {
+    private static final SearchIndex EMPTY = build(GenreIndex.empty());
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final int GRAM_LENGTH = 3;
+    private static final double MIN_SIMILARITY = 0.5;
+
+    private final int size;
+    private final String[] words;
+    private final int[][] wordTitles;
+    private final Map<String, int[]> gramWords;
+
+    /**
+     * Constructor that sets the built index.
+     * @param size Number of indexed titles.
+     * @param words All words, in alphabetical order.
+     * @param wordTitles Positions of the titles of each word.
+     * @param gramWords Positions in the dictionary of the words of each trigram.
+     */
+    private SearchIndex(int size, String[] words, int[][] wordTitles, Map<String, int[]> gramWords) {
+        this.size = size;
+        this.words = words;
+        this.wordTitles = wordTitles;
+        this.gramWords = gramWords;
+    }
+
+    /**
+     * Getter for an index without any titles.
+     * @return Returns the empty index.
+     */
+    public static SearchIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds an index of the titles and top cast of all titles of a genre index.
+     * @param genreIndex The genre index, whose positions are used for the titles.
+     * @return Returns the index.
+     */
+    public static SearchIndex build(GenreIndex genreIndex) {
+        List<Content> titles = genreIndex.getTitles();
+        Map<String, Postings> postings = new HashMap<>();
+        Map<String, List<String>> castWords = new HashMap<>();
+        for (int position = 0; position < titles.size(); position++) {
+            Content c = titles.get(position);
+            addWords(postings, tokenize(c.title()), position);
+            for (String castMember : c.topCast()) {
+                //Cast members recur across titles, so their words are only folded once
+                addWords(postings, castWords.computeIfAbsent(castMember, SearchIndex::tokenize), position);
+            }
+        }
+
+        String[] words = postings.keySet().toArray(new String[0]);
+        Arrays.sort(words);
+        int[][] wordTitles = new int[words.length][];
+        Map<String, Postings> grams = new HashMap<>();
+        for (int id = 0; id < words.length; id++) {
+            wordTitles[id] = postings.get(words[id]).toArray();
+            for (String gram : gramsOf(words[id])) {
+                grams.computeIfAbsent(gram, key -> new Postings()).add(id);
+            }
+        }
+        Map<String, int[]> gramWords = new HashMap<>(grams.size() * 2);
+        for (Map.Entry<String, Postings> gram : grams.entrySet()) {
+            gramWords.put(gram.getKey(), gram.getValue().toArray());
+        }
+        return new SearchIndex(titles.size(), words, wordTitles, gramWords);
+    }
+
+    /**
+     * Adds words to the postings of the index.
+     * @param postings Positions of the titles of each word.
+     * @param words The words.
+     * @param position Position of the title the words belong to.
+     */
+    private static void addWords(Map<String, Postings> postings, List<String> words, int position) {
+        for (String word : words) {
+            postings.computeIfAbsent(word, key -> new Postings()).add(position);
+        }
+    }
+
+    /**
+     * Folds a text to lower case without accents and splits it into words. Text without accented letters skips the
+     * Unicode decomposition.
+     * @param text The text.
+     * @return Returns the words, in the order they occur in the text.
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String folded = text;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 127) {
+                folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+                break;
+            }
+        }
+        folded = folded.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Gets the trigrams of a word.
+     * @param word The word.
+     * @return Returns the trigrams, or none if the word is shorter than a trigram.
+     */
+    private static List<String> gramsOf(String word) {
+        List<String> grams = new ArrayList<>();
+        for (int i = 0; i + GRAM_LENGTH <= word.length(); i++) {
+            grams.add(word.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    /**
+     * Finds the positions of all titles matching a search. Every word of the search must match a word of the title or
+     * its top cast.
+     * @param query The search, as typed by the user.
+     * @return Returns the positions of the matching titles in {@link GenreIndex#getTitles()}, or of all titles if the
+     * search has no words.
+     */
+    public BitSet search(String query) {
+        BitSet result = new BitSet(size);
+        result.set(0, size);
+        for (String term : tokenize(query)) {
+            result.and(match(term));
+            if (result.isEmpty()) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the positions of all titles with a word that starts with or contains a search term. If there are none, the
+     * titles with the most similar words are used instead.
+     * @param term The search term, folded.
+     * @return Returns the positions.
+     */
+    private BitSet match(String term) {
+        BitSet matched = new BitSet(size);
+        int from = Arrays.binarySearch(words, term);
+        for (int id = from < 0 ? -from - 1 : from; id < words.length && words[id].startsWith(term); id++) {
+            addTitles(matched, id);
+        }
+        if (term.length() < GRAM_LENGTH) {
+            return matched;
+        }
+
+        int[] candidates = null;
+        for (String gram : gramsOf(term)) {
+            int[] ids = gramWords.get(gram);
+            if (ids == null) {
+                candidates = null;
+                break;
+            }
+            candidates = candidates == null ? ids : intersect(candidates, ids);
+        }
+        if (candidates != null) {
+            for (int id : candidates) {
+                if (words[id].contains(term)) {
+                    addTitles(matched, id);
+                }
+            }
+        }
+        if (matched.isEmpty()) {
+            addSimilar(matched, term);
+        }
+        return matched;
+    }
+
+    /**
+     * Adds the titles of the words that share at least half of their trigrams with a search term (by Dice coefficient).
+     * @param matched Positions of the matched titles.
+     * @param term The search term, folded.
+     */
+    private void addSimilar(BitSet matched, String term) {
+        List<String> termGrams = gramsOf(term);
+        Map<Integer, Integer> shared = new HashMap<>();
+        for (String gram : termGrams) {
+            int[] ids = gramWords.get(gram);
+            if (ids != null) {
+                for (int id : ids) {
+                    shared.merge(id, 1, Integer::sum);
+                }
+            }
+        }
+        for (Map.Entry<Integer, Integer> candidate : shared.entrySet()) {
+            int wordGrams = words[candidate.getKey()].length() - GRAM_LENGTH + 1;
+            double similarity = 2.0 * candidate.getValue() / (termGrams.size() + wordGrams);
+            if (similarity >= MIN_SIMILARITY) {
+                addTitles(matched, candidate.getKey());
+            }
+        }
+    }
+
+    /**
+     * Adds the titles of a word to a set of positions.
+     * @param matched Positions of the matched titles.
+     * @param id Position of the word in the dictionary.
+     */
+    private void addTitles(BitSet matched, int id) {
+        for (int position : wordTitles[id]) {
+            matched.set(position);
+        }
+    }
+
+    /**
+     * Intersects two sorted arrays of word positions.
+     * @param a The first array.
+     * @param b The second array.
+     * @return Returns the positions found in both arrays, in order.
+     */
+    private static int[] intersect(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int count = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[count++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Inner class for a growing list of positions in increasing order, without boxing them.
+     */
+    private static final class Postings {
+        private int[] positions = new int[2];
+        private int count;
+
+        /**
+         * Adds a position, unless it is the same as the last added position.
+         * @param position The position, not smaller than the last added position.
+         */
+        void add(int position) {
+            if (count > 0 && positions[count - 1] == position) {
+                return;
+            }
+            if (count == positions.length) {
+                positions = Arrays.copyOf(positions, count * 2);
+            }
+            positions[count++] = position;
+        }
+
+        /**
+         * Getter for the added positions.
+         * @return Returns the positions, in increasing order.
+         */
+        int[] toArray() {
+            return Arrays.copyOf(positions, count);
+        }
+    }
+
+    /**
+     * Getter for the number of indexed titles.
+     * @return Returns the number of titles.
+     */
+    public int size() {
+        return size;
+    }
+}
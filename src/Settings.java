@@ -0,0 +1,112 @@
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class that gathers the configurable settings of the program. Every setting is read from a system property
+ * (for example {@code -Dtracker.executor.mode=virtual}) and falls back to a default value when it isn't set.
+ */
+public final class Settings {
+    public static final String EXECUTOR_MODE = "tracker.executor.mode";
+    public static final String EXECUTOR_THREADS = "tracker.executor.threads";
+    public static final String DATA_DIR = "tracker.data.dir";
+    public static final String PAGE_CACHE_MAX_AGE_MINUTES = "tracker.cache.maxAgeMinutes";
+    public static final String PAGE_CACHE_DISK_BUDGET_MB = "tracker.cache.diskBudgetMb";
+    public static final String DETAIL_CACHE_DISK_BUDGET_MB = "tracker.cache.detailDiskBudgetMb";
+    public static final String POSTER_MEMORY_BUDGET_MB = "tracker.posters.memoryBudgetMb";
+    public static final String POSTER_DISK_BUDGET_MB = "tracker.posters.diskBudgetMb";
+    public static final String ENRICHMENT_ENABLED = "tracker.enrichment.enabled";
+    public static final String ENRICHMENT_CONCURRENCY = "tracker.enrichment.concurrency";
+    public static final String ENRICHMENT_PER_HOST = "tracker.enrichment.perHost";
+    public static final String MOVIE_REGIONS = "tracker.regions.movies";
+    public static final String TV_SHOW_REGIONS = "tracker.regions.tvShows";
+    public static final String HTTP_CONNECT_TIMEOUT_SECONDS = "tracker.http.connectTimeoutSeconds";
+    public static final String HTTP_REQUEST_TIMEOUT_SECONDS = "tracker.http.requestTimeoutSeconds";
+    public static final String HTTP_USER_AGENT = "tracker.http.userAgent";
+    public static final String REFRESH_INTERVAL_MINUTES = "tracker.refresh.intervalMinutes";
+    public static final String REFRESH_JITTER_PERCENT = "tracker.refresh.jitterPercent";
+    public static final String REFRESH_NOTIFY_EMAIL = "tracker.refresh.notifyEmail";
+    public static final String SMTP_HOST = "tracker.smtp.host";
+    public static final String SMTP_PORT = "tracker.smtp.port";
+    public static final String SMTP_STARTTLS = "tracker.smtp.starttls";
+    public static final String SMTP_USERNAME = "tracker.smtp.username";
+    public static final String SMTP_PASSWORD = "tracker.smtp.password";
+    public static final String SMTP_POOL_SIZE = "tracker.smtp.poolSize";
+    public static final String DIGEST_TEXT_TEMPLATE = "tracker.digest.textTemplate";
+    public static final String DIGEST_HTML_TEMPLATE = "tracker.digest.htmlTemplate";
+    public static final String DIGEST_BATCH_SIZE = "tracker.digest.batchSize";
+
+    private Settings() {
+    }
+
+    /**
+     * Getter for a text setting.
+     * @param key Name of the system property.
+     * @param defaultValue Value used when the property isn't set.
+     * @return Returns the trimmed value of the property, or the default value.
+     */
+    public static String getString(String key, String defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        return value.trim();
+    }
+
+    /**
+     * Getter for a numeric setting.
+     * @param key Name of the system property.
+     * @param defaultValue Value used when the property isn't set or isn't a valid number.
+     * @return Returns the value of the property, or the default value.
+     */
+    public static int getInt(String key, int defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid value for " + key + ": " + value);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Getter for a setting that holds a list of values, separated by commas.
+     * @param key Name of the system property.
+     * @param defaultValue Value used when the property isn't set.
+     * @return Returns the trimmed, non-empty values of the property, or the values of the default value.
+     */
+    public static List<String> getList(String key, String defaultValue) {
+        List<String> values = new ArrayList<>();
+        for (String value : getString(key, defaultValue).split(",")) {
+            if (!value.isBlank()) {
+                values.add(value.trim());
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Getter for a setting that is either on or off.
+     * @param key Name of the system property.
+     * @param defaultValue Value used when the property isn't set.
+     * @return Returns true if the property is "true" (in any case), false if it is set to anything else, or the
+     * default value.
+     */
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = getString(key, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    /**
+     * Getter for the directory where the program keeps its files (caches and so on). Defaults to
+     * ".release-date-tracker" in the home directory of the user.
+     * @return Returns the path of the data directory.
+     */
+    public static Path getDataDirectory() {
+        String defaultDirectory = Path.of(System.getProperty("user.home"), ".release-date-tracker").toString();
+        return Path.of(getString(DATA_DIR, defaultDirectory));
+    }
+}
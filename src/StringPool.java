@@ -0,0 +1,48 @@
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Class that keeps a single shared instance of strings that are repeated across the catalog, such as genre names,
+ * cast names and content types, so that every scraped copy of the same text doesn't use memory of its own. Strings are
+ * only held weakly, so a string is dropped from the pool once no Content uses it anymore and the pool never grows
+ * beyond the catalogs that are alive.
+ */
+final class StringPool {
+    private static final Map<String, WeakReference<String>> POOL = new WeakHashMap<>();
+
+    private StringPool() {
+    }
+
+    /**
+     * Gets the shared instance of a string.
+     * @param value The string.
+     * @return Returns the shared instance that is equal to the string, or null if the string is null.
+     */
+    static String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        synchronized (POOL) {
+            WeakReference<String> reference = POOL.get(value);
+            String pooled = reference == null ? null : reference.get();
+            if (pooled != null) {
+                return pooled;
+            }
+            POOL.put(value, new WeakReference<>(value));
+            return value;
+        }
+    }
+
+    /**
+     * Replaces every string of an array with its shared instance.
+     * @param values The strings, which are replaced in place, so the array must not belong to the caller.
+     * @return Returns the same array.
+     */
+    static String[] internAll(String[] values) {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = intern(values[i]);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,38 @@
+import javafx.scene.control.TableCell;
+import javafx.scene.control.Tooltip;
+
+/**
+ * Class extending TableCell for long texts, such as plots, that don't fit the width of their column. The cell shows as
+ * much of the text as fits, and the whole text, wrapped, in a tooltip.
+ */
+public class TooltipTableCell extends TableCell<Content, String> {
+    private static final double TOOLTIP_WIDTH = 400;
+
+    private final Tooltip tooltip = new Tooltip();
+
+    /**
+     * Constructor that sets up the tooltip of the cell.
+     */
+    public TooltipTableCell() {
+        tooltip.setWrapText(true);
+        tooltip.setMaxWidth(TOOLTIP_WIDTH);
+    }
+
+    /**
+     * Method that handles the updating of Items inside the TableView. The tooltip is only shown for cells with text.
+     * @param text Text to be displayed.
+     * @param empty Signals if the cell is empty.
+     */
+    @Override
+    protected void updateItem(String text, boolean empty) {
+        super.updateItem(text, empty);
+        if (empty || text == null || text.isEmpty()) {
+            setText(null);
+            setTooltip(null);
+        } else {
+            setText(text);
+            tooltip.setText(text);
+            setTooltip(tooltip);
+        }
+    }
+}
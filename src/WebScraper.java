@@ -1,234 +1,129 @@
 import javafx.concurrent.Task;
-import javafx.scene.control.ProgressBar;
-import javafx.scene.image.Image;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
-import java.io.IOException;
-import java.time.LocalDate;
-import java.time.Year;
-import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
+import javafx.concurrent.Worker;
 import java.util.List;
-import java.util.Locale;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 
 /**
- * Class that handles the web-scraping from IMDB:s data of upcoming movies and tv-shows.
+ * Class that handles the web-scraping from IMDB:s data of upcoming movies and tv-shows for the GUI. The scraping itself
+ * is done by {@link CalendarScraper}, run as a JavaFX Task so its progress can be displayed and its result is handed
+ * over on the JavaFX application thread.
  */
 public class WebScraper {
-    private static final String IMDB_MOVIE_URL = "https://www.imdb.com/calendar/sweden";
-    private static final String IMDB_TV_URL = "https://www.imdb.com/calendar/?ref_=rlm&region=US&type=TV";
-    private static final String IMDB_URL = "https://www.imdb.com";
-    private static final String currentYear;
-    private static final String nextYear;
-    private static final String yearAfterNext;
-    private List<Content> data;
-    private String contentType;
-
-    static {
-        Year year = Year.now();
-        currentYear = year.format(DateTimeFormatter.ofPattern("yyyy"));
-        nextYear = year.plusYears(1).format(DateTimeFormatter.ofPattern("yyyy"));
-        yearAfterNext = year.plusYears(2).format(DateTimeFormatter.ofPattern("yyyy"));
-    }
-
     /**
      * Initiates async movie scrape.
      * @param callback Forwards callback.
-     * @param progressBar Forwards progressbar.
+     * @return Returns the running scrape, whose progress can be displayed in the GUI.
+     */
+    public Worker<List<Content>> scrapeMoviesAsync(Consumer<List<Content>> callback) {
+        return startScrape(null, callback, CalendarScraper::scrapeMovies);
+    }
+
+    /**
+     * Initiates async movie scrape that streams the movies in batches while the page is being processed.
+     * @param batchCallback Handles each batch of movies, on the JavaFX application thread.
+     * @param callback Forwards callback, run with all movies once the scrape is done.
+     * @return Returns the running scrape, whose progress can be displayed in the GUI.
      */
-    public void scrapeMoviesAsync(Consumer<List<Content>> callback, ProgressBar progressBar) {
-        contentType = "Movie";
-        startScrape(callback, progressBar, IMDB_MOVIE_URL);
+    public Worker<List<Content>> scrapeMoviesAsync(Consumer<List<Content>> batchCallback, Consumer<List<Content>> callback) {
+        return startScrape(batchCallback, callback, CalendarScraper::scrapeMovies);
     }
 
     /**
      * Initiates async tv-show scrape.
      * @param callback Forwards callback.
-     * @param progressBar Forwards progressbar.
+     * @return Returns the running scrape, whose progress can be displayed in the GUI.
      */
-    public void scrapeTvShowsAsync(Consumer<List<Content>> callback, ProgressBar progressBar) {
-        contentType = "Tv-show";
-        startScrape(callback, progressBar, IMDB_TV_URL);
+    public Worker<List<Content>> scrapeTvShowsAsync(Consumer<List<Content>> callback) {
+        return startScrape(null, callback, CalendarScraper::scrapeTvShows);
     }
 
     /**
-     * Method that handles setting up scrape, starting it and handles OnSucceeded.
+     * Initiates async tv-show scrape that streams the tv-shows in batches while the page is being processed.
+     * @param batchCallback Handles each batch of tv-shows, on the JavaFX application thread.
+     * @param callback Forwards callback, run with all tv-shows once the scrape is done.
+     * @return Returns the running scrape, whose progress can be displayed in the GUI.
+     */
+    public Worker<List<Content>> scrapeTvShowsAsync(Consumer<List<Content>> batchCallback, Consumer<List<Content>> callback) {
+        return startScrape(batchCallback, callback, CalendarScraper::scrapeTvShows);
+    }
+
+    /**
+     * Method that handles setting up scrape, starting it and handles OnSucceeded. When streaming, the Content of each
+     * processed Article-element of the first region is published right away and delivered in batches, at most one batch
+     * per JavaFX pulse.
+     * @param batchCallback Handles batches of Content while scraping, or null if the result shouldn't be streamed.
      * @param callback Handles result of scraping task.
-     * @param progressBar A bar that displays progress of scrape in the GUI.
-     * @param url URL on which to perform scrape.
+     * @param scrape The scrape to run, for example {@link CalendarScraper#scrapeMovies}.
+     * @return Returns the started task.
      */
-    private void startScrape(Consumer<List<Content>> callback, ProgressBar progressBar, String url) {
-        Task<List<Content>> task = new WebScrapingTask(url);
+    private Worker<List<Content>> startScrape(Consumer<List<Content>> batchCallback, Consumer<List<Content>> callback,
+                                              BiFunction<CalendarScraper, ScrapeListener, List<Content>> scrape) {
+        FxBatchCoalescer<Content> coalescer = batchCallback == null ? null : new FxBatchCoalescer<>(batchCallback);
+        Task<List<Content>> task = new WebScrapingTask(scrape, coalescer);
 
         task.setOnSucceeded(e -> {
+            if (coalescer != null) {
+                coalescer.finish();
+            }
             List<Content> data = task.getValue();
             callback.accept(data);
         });
+        if (coalescer != null) {
+            task.setOnFailed(e -> coalescer.cancel());
+            task.setOnCancelled(e -> coalescer.cancel());
+            coalescer.start();
+        }
 
-        progressBar.progressProperty().bind(task.progressProperty());
-
-        new Thread(task).start();
+        BackgroundExecutor.shared().execute(task);
+        return task;
     }
 
     /**
-     * Class that extends Task, carries the Call-method and functionality of the scrape.
+     * Class that extends Task, carries the Call-method of the scrape and reports its progress to the GUI.
      */
     private class WebScrapingTask extends Task<List<Content>> {
-        Image poster = null;
-        String title;
-        String[] genres;
-        String[] topCast;
-        LocalDate releaseDate;
-        String contentsImdbUrl;
-        Image previousPoster = null;
-        int posterIndex;
-
-        private final String URL;
+        private final BiFunction<CalendarScraper, ScrapeListener, List<Content>> scrape;
+        private final FxBatchCoalescer<Content> coalescer;
 
         /**
-         * Constructor that sets up URL.
-         * @param URL URL to web-site on which to scrape.
+         * Constructor that sets up the scrape.
+         * @param scrape The scrape to run.
+         * @param coalescer Receives the Content of each processed Article-element of the first region, or null if not
+         *                  streaming.
          */
-        public WebScrapingTask(String URL) {
-            this.URL = URL;
+        public WebScrapingTask(BiFunction<CalendarScraper, ScrapeListener, List<Content>> scrape,
+                               FxBatchCoalescer<Content> coalescer) {
+            this.scrape = scrape;
+            this.coalescer = coalescer;
         }
 
         /**
-         * Fetches upcoming content releases from a specified URL and processes them into a list of {@code Content} objects.
-         * Uses JSoup for HTML parsing. The method filters content based on the current, next, and year after next release dates,
-         * and collects information such as titles, genres, top cast, and IMDB URLs. Progress is reported back for UI updates.
+         * Runs the scrape, publishing streamed Content to the coalescer and progress to the progress of the task.
          *
          * @return List of upcoming content releases as {@code Content} objects.
-         * @throws IOException for network-related errors.
-         * @throws Exception for any other unexpected errors.
+         * @throws Exception for unexpected errors.
          */
         @Override
         protected List<Content> call() throws Exception {
-            try {
-                data = new ArrayList<>();
-                final Document document = Jsoup.connect(URL).get();
-
-                //Get all upcoming releases to iterate through
-                Elements articleElements = document.select("article.sc-48add019-1.hSuRMl");
-
-                //Set up advancing of Progress bar for reporting back to GUI.
-                int totalSteps = articleElements.size();
-                int currentStep = 0;
-
-                //Iterate over each Article-element (where one Article-element contains all Content to be released a given date)
-                for (Element articleElement : articleElements) {
-
-                    //Get all set release-dates and iterate through one at a time
-                    Elements dateElements = articleElement.select("h3.ipc-title__text");
-                    for (Element dateElement : dateElements) {
-                        if (dateElement.text().contains(yearAfterNext) || dateElement.text().contains(nextYear) || dateElement.text().contains(currentYear)) {
-
-                            setCurrentReleaseDate(dateElement);
-
-                            //Get all posters for a given date to iterate through while collecting Content attributes
-                            Elements posterElements = articleElement.select("img.ipc-image");
-                            posterIndex = 0;
-
-                            //Get the summary of a Content to be released at the given date
-                            Elements summaryElements = articleElement.select("div.ipc-metadata-list-summary-item__tc");
-                            for (Element summaryElement : summaryElements) {
-                                setCurrentContentsImdbUrl(summaryElement);
-                                setCurrentPoster(posterElements);
-                                setCurrentTitle(summaryElement);
-                                setCurrentGenres(summaryElement);
-                                setCurrentTopCast(summaryElement);
-
-                                //Check that Contents poster isn't assigned to previous Contents poster (which would mean it has no own poster)
-                                if (previousPoster == poster) {
-                                    poster = null;
-                                } else {
-                                    previousPoster = poster;
-                                }
-                                data.add(new Content(poster, title, genres, topCast, releaseDate, contentType, contentsImdbUrl));
-                            }
-                        }
+            return scrape.apply(new CalendarScraper(), new ScrapeListener() {
+                @Override
+                public void onBatch(List<Content> batch) {
+                    if (coalescer != null) {
+                        coalescer.publish(batch);
                     }
-                    //Handle progress for Progress bar
-                    currentStep++;
-                    double progress = (double) currentStep / totalSteps;
-                    updateProgress(progress, 1);
                 }
-            } catch (IOException e){
-                System.out.println("IOException: " + e.getMessage());
-            } catch (Exception e) {
-                System.out.println("Unexpected exception: " + e.getMessage());
-            }
-            return data;
-        }
-
-        /**
-         * Sets current Poster-element through given summary via Element
-         * @param posterElements Takes data of all posters for a given period.
-         */
-        private void setCurrentPoster(Elements posterElements) {
-            if (posterIndex < posterElements.size()) {
-                poster = new Image(posterElements.get(posterIndex).attr("src"));
-                posterIndex++;
-            }
-        }
-
-        /**
-         * Sets title of a given content.
-         * @param summaryElement Takes a summary wherein title of content resides.
-         */
-        private void setCurrentTitle(Element summaryElement) {
-            title = summaryElement.select("a.ipc-metadata-list-summary-item__t").text();
-        }
-
-        /**
-         * Sets all genres of given content.
-         * @param summaryElement Takes a summary wherein title of content resides.
-         */
-        private void setCurrentGenres(Element summaryElement) {
-            Elements genreUlElements = summaryElement.select("ul.ipc-inline-list.ipc-inline-list--show-dividers.ipc-inline-list--no-wrap.ipc-inline-list--inline.ipc-metadata-list-summary-item__tl.base");
-            Elements genreLiElements = genreUlElements.select("li");
-            genres = new String[genreLiElements.size()];
-            for (int i = 0; i < genreLiElements.size(); i++) {
-                genres[i] = genreLiElements.get(i).text();
-            }
-        }
-
-        /**
-         * Sets all top cast of given content.
-         * @param summaryElement Takes a summary wherein title of content resides.
-         */
-        private void setCurrentTopCast(Element summaryElement) {
-            Elements topCastUlElements = summaryElement.select("ul.ipc-inline-list.ipc-inline-list--show-dividers.ipc-inline-list--no-wrap.ipc-inline-list--inline.ipc-metadata-list-summary-item__stl.base");
-            Elements topCastLiElements = topCastUlElements.select("li");
-            topCast = new String[topCastLiElements.size()];
-            for (int i = 0; i < topCastLiElements.size(); i++) {
-                topCast[i] = topCastLiElements.get(i).text();
-            }
-        }
 
-        /**
-         * Sets release date of given content.
-         * @param dateElement Takes an element where date is to be extracted from.
-         */
-        private void setCurrentReleaseDate(Element dateElement) {
-            String dateString = dateElement.text();
-            DateTimeFormatter inputFormatter = DateTimeFormatter.ofPattern("MMM dd, yyyy", Locale.ENGLISH);
-            releaseDate = LocalDate.parse(dateString, inputFormatter);
-        }
+                @Override
+                public void onProgress(double progress) {
+                    updateProgress(progress, 1);
+                }
 
-        /**
-         * Sets IMDB URL to given content.
-         * @param summaryElement Takes a summary wherein title of content resides.
-         */
-        private void setCurrentContentsImdbUrl(Element summaryElement) {
-            contentsImdbUrl = IMDB_URL +
-                    summaryElement.select("a.ipc-metadata-list-summary-item__t").attr("href");
+                @Override
+                public void onError(String url, Exception e) {
+                    System.out.println("Error scraping " + url + ": " + e.getMessage());
+                }
+            });
         }
-
     }
-
-
 }
@@ -1,4 +1,7 @@
 import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.beans.Observable;
+import javafx.beans.binding.Bindings;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -11,11 +14,11 @@ import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextArea;
 import javafx.scene.control.TextField;
-import javafx.scene.control.cell.PropertyValueFactory;
-import javafx.scene.image.Image;
 import javafx.scene.layout.*;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
+import javax.mail.internet.AddressException;
+import javax.mail.internet.InternetAddress;
 import java.awt.*;
 import java.io.IOException;
 import java.net.URI;
@@ -31,11 +34,14 @@ import java.util.List;
 public class WebScraperGUI extends Application {
     private static final int BUTTON_HEIGHT = 30;
     private static final MappedData MAPPED_DATA = new MappedData();
-    private final List<Content> favoriteContent = new ArrayList<>();
+    private static final String MATCH_ANY = "Any of the selected genres";
+    private static final String MATCH_ALL = "All of the selected genres";
+    private static final String MATCH_NONE = "None of the selected genres";
+    private final FavoritesStore favorites = FavoritesStore.shared();
     private TableView<Content> tableView;
     private ObservableList<Content> moviesObsList;
     private ObservableList<Content> tvShowObsList;
-    private TableColumn<Content, Image> posterColumn;
+    private TableColumn<Content, String> posterColumn;
     private AnchorPane topAnchorPane;
     private AnchorPane bottomAnchorPane;
     private Button filterButton;
@@ -45,12 +51,22 @@ public class WebScraperGUI extends Application {
     private Button sendButton;
     private Button viewImdbPageButton;
     private Button refreshButton;
+    private Button calendarButton;
+    private Button changesButton;
+    private TextField searchField;
     private HBox radioButtonsHbox;
     private RadioButton moviesRadioButton;
     private RadioButton tvShowsRadioButton;
     private ProgressBar progressBar;
     private boolean filterIsActive = false;
+    private List<String> filterGenres = List.of();
+    private String filterMatch = MATCH_ANY;
     private boolean loading = false;
+    private int pendingScrapes = 0;
+    private DetailEnricher detailEnricher;
+    private RefreshScheduler refreshScheduler;
+    private final List<RefreshChanges> unseenChanges = new ArrayList<>();
+    private final Set<String> sentEmails = new HashSet<>();
 
 
     /**
@@ -63,7 +79,33 @@ public class WebScraperGUI extends Application {
         setupComponents();
         setupListeners();
 
-        loadMovies();
+        if (Settings.getBoolean(Settings.ENRICHMENT_ENABLED, false)) {
+            detailEnricher = new DetailEnricher(enrichedUrls -> tableView.refresh());
+        }
+        refreshScheduler = RefreshScheduler.fromSettings(0, (contentType, data, changes) ->
+                Platform.runLater(() -> handleScheduledRefresh(contentType, data, changes)));
+        if (refreshScheduler != null) {
+            refreshScheduler.start();
+        }
+        EmailOutbox.shared().addListener(new EmailOutbox.Listener() {
+            @Override
+            public void onQueued(String id, String to) {
+                Platform.runLater(() -> handleEmailQueued(id, to));
+            }
+
+            @Override
+            public void onDuplicate(String id, String to, boolean alreadyQueued) {
+                Platform.runLater(() -> handleEmailDuplicate(id, to, alreadyQueued));
+            }
+
+            @Override
+            public void onGivenUp(String id, String to, String subject, String error) {
+                Platform.runLater(() -> handleEmailGivenUp(id, to, subject, error));
+            }
+        });
+        EmailOutbox.shared().start();
+        BackgroundExecutor.shared().execute(favorites::load);
+        loadAllContent();
 
         BorderPane root = new BorderPane();
         root.setTop(topAnchorPane);
@@ -76,14 +118,28 @@ public class WebScraperGUI extends Application {
         primaryStage.show();
     }
 
+    /**
+     * Stop-method for GUI. Shuts down the background work when the application closes.
+     */
+    @Override
+    public void stop() {
+        if (detailEnricher != null) {
+            detailEnricher.cancel();
+        }
+        if (refreshScheduler != null) {
+            refreshScheduler.stop();
+        }
+        EmailOutbox.shared().stop();
+        BackgroundExecutor.shared().shutdown();
+        DetailStore.shared().close();
+    }
+
     /**
      * Method for adding instance of Content to favorites through interaction with TableView.
      */
     private void addFavorite() {
         Content selectedItem = tableView.getSelectionModel().getSelectedItem();
-        if (!favoriteContent.contains(selectedItem)) {
-            favoriteContent.add(selectedItem);
-        }
+        favorites.add(selectedItem);
     }
 
     /**
@@ -91,14 +147,14 @@ public class WebScraperGUI extends Application {
      */
     private void removeFavorite() {
         Content selectedItem = tableView.getSelectionModel().getSelectedItem();
-        favoriteContent.removeIf(c -> c == selectedItem);
+        favorites.remove(selectedItem);
     }
 
     /**
      * Method that handles showing favorite Content via use of popup.
      */
     private void showFavoritesPopup() {
-        ObservableList<Content> favoriteContentObsList = createObservableArrayList(favoriteContent);
+        ObservableList<Content> favoriteContentObsList = createObservableArrayList(favorites.getAll());
         ListView<String> popupListView = new ListView<>();
         popupListView.setEditable(false);
 
@@ -143,6 +199,7 @@ public class WebScraperGUI extends Application {
         subjectField.setEditable(false);
 
         //Builds message of favorite Content as a String
+        List<Content> favoriteContent = favorites.getAll();
         StringBuilder messageSb = new StringBuilder();
         for (Content c : favoriteContent) {
             messageSb.append(c.toString());
@@ -182,22 +239,84 @@ public class WebScraperGUI extends Application {
     }
 
     /**
-     * Method initiates the sending of Email by use of EmailSender-class.
+     * Method initiates the sending of Email by queuing it in the EmailOutbox, once the address is checked.
      * @param to Email-address where Content should be sent.
      * @param subject String subject-line of email.
      * @param message String message to be sent.
      */
-    private void sendEmail(String to, String subject, String message) { //Disabled as email-address is needed for sending
-//        EmailSender emailSender = new EmailSender(to, subject, message);
-//        boolean emailSent = emailSender.send();
-//        if (!emailSent) {
-//            Alert alert = new Alert(Alert.AlertType.ERROR);
-//            alert.setTitle("Error");
-//            alert.setHeaderText(null);
-//            alert.setContentText("Couldn't find email address! Please try another one.");
-//            alert.getButtonTypes().setAll(ButtonType.CLOSE);
-//            alert.showAndWait();
-//        }
+    private void sendEmail(String to, String subject, String message) {
+        try {
+            new InternetAddress(to, true);
+        } catch (AddressException e) {
+            Alert alert = new Alert(Alert.AlertType.ERROR);
+            alert.setTitle("Error");
+            alert.setHeaderText(null);
+            alert.setContentText("Couldn't find email address! Please try another one.");
+            alert.getButtonTypes().setAll(ButtonType.CLOSE);
+            alert.showAndWait();
+            return;
+        }
+        if (EmailSender.getUsername().isEmpty()) {
+            showEmailMessage(Alert.AlertType.ERROR, "Sending email isn't set up! Set the address to send from in "
+                    + Settings.SMTP_USERNAME + ".");
+            return;
+        }
+        //Sent in the background, and kept in the outbox until it is sent, even if the program is closed. The outbox
+        //reports back whether the email was queued
+        sentEmails.add(EmailOutbox.shared().enqueue(to, subject, message));
+    }
+
+    /**
+     * Confirms that an email sent from the GUI has been queued.
+     * @param id The id of the email.
+     * @param to Email address of the recipient.
+     */
+    private void handleEmailQueued(String id, String to) {
+        if (sentEmails.contains(id)) {
+            showEmailMessage(Alert.AlertType.INFORMATION, "Email to " + to + " is queued and will be sent in the"
+                    + " background.");
+        }
+    }
+
+    /**
+     * Tells the user that an email sent from the GUI wasn't queued again.
+     * @param id The id of the email.
+     * @param to Email address of the recipient.
+     * @param alreadyQueued True if the email is still queued, false if it has already been sent.
+     */
+    private void handleEmailDuplicate(String id, String to, boolean alreadyQueued) {
+        if (sentEmails.contains(id)) {
+            showEmailMessage(Alert.AlertType.INFORMATION, alreadyQueued
+                    ? "The same email to " + to + " is already queued."
+                    : "The same email was sent to " + to + " within the last day, so it isn't sent again.");
+        }
+    }
+
+    /**
+     * Tells the user that an email, sent from the GUI or with scheduled changes, will never be sent.
+     * @param id The id of the email.
+     * @param to Email address of the recipient.
+     * @param subject Title of the email.
+     * @param error The reason the last attempt failed, or null if it isn't known.
+     */
+    private void handleEmailGivenUp(String id, String to, String subject, String error) {
+        sentEmails.remove(id);
+        showEmailMessage(Alert.AlertType.ERROR, "Couldn't send \"" + subject + "\" to " + to
+                + (error == null ? "." : ": " + error));
+    }
+
+    /**
+     * Shows a message about email without waiting for it to be closed.
+     * @param type Type of the message.
+     * @param message The message.
+     */
+    private void showEmailMessage(Alert.AlertType type, String message) {
+        Alert alert = new Alert(type);
+        alert.setTitle(type == Alert.AlertType.ERROR ? "Error" : "Email");
+        alert.setHeaderText(null);
+        alert.setContentText(message);
+        alert.getButtonTypes().setAll(ButtonType.CLOSE);
+        alert.show();
     }
 
     /**
@@ -205,12 +324,8 @@ public class WebScraperGUI extends Application {
      */
     private void filtersPopup() {
         if (filterIsActive) {
-            if (moviesRadioButton.isSelected()) {
-                populateTableView(moviesObsList);
-            } else {
-                populateTableView(tvShowObsList);
-            }
             removeFiltering();
+            displayFiltered();
         } else {
             Stage popupStage = new Stage();
             VBox componentsVBox = new VBox(10);
@@ -218,19 +333,21 @@ public class WebScraperGUI extends Application {
             Label genreLabel = new Label("Genres");
             componentsVBox.getChildren().add(genreLabel);
 
-            HashSet<String> genres = null;
+            CatalogSnapshot snapshot = MAPPED_DATA.getSnapshot();
+            GenreIndex genreIndex = null;
             if (moviesRadioButton.isSelected()) {
-                genres = MAPPED_DATA.getMovieGenres();
+                genreIndex = snapshot.movies();
             } else if (tvShowsRadioButton.isSelected()) {
-                genres = MAPPED_DATA.getTvShowGenres();
+                genreIndex = snapshot.tvShows();
             }
 
 
-            if (genres != null) {
-                //Sets up all genres as ToggleButtons for user to interact with if more than one genre exists.
+            if (genreIndex != null) {
+                //Sets up all genres as ToggleButtons, with the number of titles of each genre, for user to interact with.
                 List<ToggleButton> toggleButtons = new ArrayList<>();
-                for (String s : genres) {
-                    ToggleButton tb = new ToggleButton(s);
+                for (Map.Entry<String, Integer> genreCount : genreIndex.getCounts().entrySet()) {
+                    ToggleButton tb = new ToggleButton(genreCount.getKey() + " (" + genreCount.getValue() + ")");
+                    tb.setUserData(genreCount.getKey());
                     toggleButtons.add(tb);
                     tb.setFocusTraversable(false);
                 }
@@ -254,11 +371,16 @@ public class WebScraperGUI extends Application {
                 separator.setOrientation(Orientation.HORIZONTAL);
                 componentsVBox.getChildren().add(separator);
 
+                ComboBox<String> matchComboBox = new ComboBox<>();
+                matchComboBox.getItems().addAll(MATCH_ANY, MATCH_ALL, MATCH_NONE);
+                matchComboBox.setValue(MATCH_ANY);
+                componentsVBox.getChildren().add(matchComboBox);
+
                 Button closeButton = new Button("Close");
                 closeButton.setOnAction(e -> popupStage.close());
                 Button okButton = new Button("Ok");
                 okButton.setOnAction(e -> {
-                    handleGenreFiltering(toggleButtons);
+                    handleGenreFiltering(toggleButtons, matchComboBox.getValue());
                     popupStage.close();
                 });
 
@@ -270,7 +392,7 @@ public class WebScraperGUI extends Application {
                 root.setPadding(new Insets(10));
                 root.setTop(componentsVBox);
                 root.setBottom(buttonHbox);
-                Scene popupScene = new Scene(root, 360, 350);
+                Scene popupScene = new Scene(root, 460, 400);
                 popupStage.setScene(popupScene);
                 popupStage.show();
             }
@@ -290,83 +412,358 @@ public class WebScraperGUI extends Application {
     /**
      * Method that retrieves all user-selected genres to display and forwards it to be displayed.
      * @param toggleButtons List of all genre-buttons the user can interact with.
+     * @param match How the selected genres are combined (any, all or none of them).
      */
-    private void handleGenreFiltering(List<ToggleButton> toggleButtons) {
+    private void handleGenreFiltering(List<ToggleButton> toggleButtons, String match) {
         List<String> selectedGenres = new ArrayList<>();
         for (ToggleButton tb : toggleButtons) {
             if (tb.isSelected()) {
-                selectedGenres.add(tb.getText());
+                selectedGenres.add((String) tb.getUserData());
             }
         }
         if (!selectedGenres.isEmpty()) {
             filterIsActive = true;
+            filterGenres = selectedGenres;
+            filterMatch = match;
             filterButton.setText("Remove filter");
-            displayByGenre(selectedGenres);
+            displayFiltered();
         }
     }
 
     /**
-     * Method responsible for getting all Content belonging to user-selected genre for filtering.
-     * @param selectedGenres User-selected genres to filter by.
+     * Checks whether the TableView shows a subset of the displayed content type.
+     * @return Returns true if a genre filter is active or a search is typed.
      */
-    private void displayByGenre(List<String> selectedGenres) {
-        Set<Content> contentToDisplay = new HashSet<>();
-        Map<String, List<Content>> contentByGenre;
-        if (moviesRadioButton.isSelected()) {
-            contentByGenre = MAPPED_DATA.getMoviesByGenre();
-        } else {
-            contentByGenre = MAPPED_DATA.getTvShowsByGenre();
-        }
+    private boolean isFiltered() {
+        return filterIsActive || !searchField.getText().isBlank();
+    }
 
-        for (String s : contentByGenre.keySet()) {
-            if (selectedGenres.contains(s)) {
-                contentToDisplay.addAll(contentByGenre.get(s));
+    /**
+     * Method responsible for displaying the Content of the displayed content type that belongs to the user-selected
+     * genres and matches the search. Both are looked up in the same snapshot of the catalog, so their positions always
+     * agree, and the Content is displayed in order of release date. Without a filter or search all Content is displayed
+     * in scraped order.
+     */
+    private void displayFiltered() {
+        List<Content> allContent = moviesRadioButton.isSelected() ? moviesObsList : tvShowObsList;
+        if (!isFiltered()) {
+            if (allContent != null) {
+                populateTableView(allContent);
             }
+            return;
+        }
+
+        CatalogSnapshot snapshot = MAPPED_DATA.getSnapshot();
+        GenreIndex genreIndex = moviesRadioButton.isSelected() ? snapshot.movies() : snapshot.tvShows();
+        SearchIndex searchIndex = moviesRadioButton.isSelected() ? snapshot.movieSearch() : snapshot.tvShowSearch();
+        BitSet positions;
+        if (!filterIsActive) {
+            positions = genreIndex.query(List.of(), List.of(), List.of());
+        } else if (MATCH_ALL.equals(filterMatch)) {
+            positions = genreIndex.query(filterGenres, List.of(), List.of());
+        } else if (MATCH_NONE.equals(filterMatch)) {
+            positions = genreIndex.query(List.of(), List.of(), filterGenres);
+        } else {
+            positions = genreIndex.query(List.of(), filterGenres, List.of());
         }
-        ObservableList<Content> contentObsList = FXCollections.observableArrayList(contentToDisplay);
-        populateTableView(contentObsList);
+        positions.and(searchIndex.search(searchField.getText()));
+        populateTableView(genreIndex.select(positions));
     }
 
     /**
-     * Method that "refreshes" tableview by starting a new scrape for movies/tv-shows.
+     * Method that "refreshes" tableview by starting a new scrape for movies/tv-shows. Only Content that has changed since
+     * the last scrape is replaced in the TableView, so selection and scroll position are kept. An active filter or
+     * search is kept, and applied to the refreshed Content once it is mapped.
      */
     private void refreshData() {
+        startLoading(1);
         if (moviesRadioButton.isSelected()) {
-            loadMovies();
+            trackScrapes(new WebScraper().scrapeMoviesAsync(this::handleRefreshedMovies));
         } else if (tvShowsRadioButton.isSelected()) {
-            loadTvShows();
+            trackScrapes(new WebScraper().scrapeTvShowsAsync(this::handleRefreshedTvShows));
+        }
+    }
+
+    /**
+     * Handles the result of a refresh of movies, by applying the difference against the previous movies.
+     * @param data All scraped movies.
+     */
+    private void handleRefreshedMovies(List<Content> data) {
+        applyRefreshedMovies(data);
+        finishLoading();
+    }
+
+    /**
+     * Handles the result of a refresh of tv-shows, by applying the difference against the previous tv-shows.
+     * @param data All scraped tv-shows.
+     */
+    private void handleRefreshedTvShows(List<Content> data) {
+        applyRefreshedTvShows(data);
+        finishLoading();
+    }
+
+    /**
+     * Applies the difference between refreshed movies and the previous movies to the TableView, and sets the refreshed
+     * movies as the baseline of scheduled refreshes.
+     * @param data All scraped movies.
+     */
+    private void applyRefreshedMovies(List<Content> data) {
+        ContentDiff diff = ContentDiff.compute(moviesObsList, data);
+        if (moviesRadioButton.isSelected() && !isFiltered()) {
+            diff.applyTo(tableView.getItems());
         }
-        removeFiltering();
+        moviesObsList = createObservableArrayList(diff.getReconciled());
+        favorites.reattach(diff.getReconciled());
+        setRefreshBaseline("Movie", diff.getReconciled());
+        startMovieGenreMappingTask(diff.getReconciled());
+        startEnrichment(diff.getAdded());
+    }
+
+    /**
+     * Applies the difference between refreshed tv-shows and the previous tv-shows to the TableView, and sets the
+     * refreshed tv-shows as the baseline of scheduled refreshes.
+     * @param data All scraped tv-shows.
+     */
+    private void applyRefreshedTvShows(List<Content> data) {
+        ContentDiff diff = ContentDiff.compute(tvShowObsList, data);
+        if (tvShowsRadioButton.isSelected() && !isFiltered()) {
+            diff.applyTo(tableView.getItems());
+        }
+        tvShowObsList = createObservableArrayList(diff.getReconciled());
+        favorites.reattach(diff.getReconciled());
+        setRefreshBaseline("Tv-show", diff.getReconciled());
+        startTvShowGenreMappingTask(diff.getReconciled());
+        startEnrichment(diff.getAdded());
+    }
+
+    /**
+     * Handles the result of a scheduled refresh, by applying it like a manual refresh and showing relevant changes in
+     * the changes badge until the user has looked at them.
+     * @param contentType The type of the refreshed Content (movie or tv-show).
+     * @param data All refreshed Content of the type.
+     * @param changes The changes worth notifying about.
+     */
+    private void handleScheduledRefresh(String contentType, List<Content> data, RefreshChanges changes) {
+        if (contentType.equals("Movie")) {
+            applyRefreshedMovies(data);
+        } else {
+            applyRefreshedTvShows(data);
+        }
+        if (changes.isRelevant()) {
+            unseenChanges.add(changes);
+            updateChangesBadge();
+        }
+    }
+
+    /**
+     * Sets the baseline that scheduled refreshes of a content type are compared against, if scheduled refresh is on.
+     * @param contentType The type of the Content (movie or tv-show).
+     * @param data All Content of the type, as displayed.
+     */
+    private void setRefreshBaseline(String contentType, List<Content> data) {
+        if (refreshScheduler != null) {
+            refreshScheduler.setBaseline(contentType, data);
+        }
+    }
+
+    /**
+     * Shows the number of unseen changes on the changes badge, which is hidden when there are none.
+     */
+    private void updateChangesBadge() {
+        int count = 0;
+        for (RefreshChanges changes : unseenChanges) {
+            count += changes.count();
+        }
+        changesButton.setText(count + (count == 1 ? " change" : " changes"));
+        changesButton.setVisible(count > 0);
+        changesButton.setManaged(count > 0);
+    }
+
+    /**
+     * Method that shows the unseen changes found by scheduled refreshes via use of popup, and marks them as seen.
+     */
+    private void showChangesPopup() {
+        StringBuilder changesSb = new StringBuilder();
+        for (RefreshChanges changes : unseenChanges) {
+            changesSb.append(changes.describe()).append('\n');
+        }
+        unseenChanges.clear();
+        updateChangesBadge();
+
+        Stage popupStage = new Stage();
+        popupStage.initModality(Modality.APPLICATION_MODAL);
+        TextArea changesArea = new TextArea(changesSb.toString().strip());
+        changesArea.setEditable(false);
+        Button closeButton = new Button("Close");
+        closeButton.setOnAction(e -> popupStage.close());
+        VBox popupRoot = new VBox(10, changesArea, closeButton);
+        popupRoot.setPadding(new Insets(10));
+        Scene popupScene = new Scene(popupRoot, 500, 300);
+        popupStage.setScene(popupScene);
+        popupStage.show();
+    }
+
+    /**
+     * Method that initiates scraping of both movies and tv-shows at the same time, so that the content type that isn't
+     * displayed is already loaded and genre-mapped when the user switches to it. Scraped Content is streamed into the
+     * TableView while the scrape is running.
+     */
+    private void loadAllContent() {
+        startLoading(2);
+        WebScraper webScraper = new WebScraper();
+        Worker<List<Content>> movieScrape = webScraper.scrapeMoviesAsync(this::handleMovieBatch, this::handleScrapedMovies);
+        Worker<List<Content>> tvShowScrape = webScraper.scrapeTvShowsAsync(this::handleTvShowBatch, this::handleScrapedTvShows);
+        trackScrapes(movieScrape, tvShowScrape);
     }
 
     /**
      * Method that initiates scraping of movies, done with asynchronicity, and forwards scarped data to populate tableView.
      */
     private void loadMovies() {
-        loading = true;
-        handleComponentsDuringContentLoading();
-        new WebScraper().scrapeMoviesAsync(data -> {
-            moviesObsList = createObservableArrayList(data);
-            populateTableView(moviesObsList);
-            loading = false;
-            handleComponentsDuringContentLoading();
-            startMovieGenreMappingTask(data);
-        }, progressBar);
+        startLoading(1);
+        trackScrapes(new WebScraper().scrapeMoviesAsync(this::handleScrapedMovies));
     }
 
     /**
      * Method that initiates scraping of tv-shows, done with asynchronicity, and forwards scarped data to populate tableView.
      */
     private void loadTvShows() {
+        startLoading(1);
+        trackScrapes(new WebScraper().scrapeTvShowsAsync(this::handleScrapedTvShows));
+    }
+
+    /**
+     * Handles a batch of movies streamed while scraping, by adding them to the release date index and to the TableView
+     * if movies are displayed without a filter or search.
+     * @param batch Movies scraped since the last batch.
+     */
+    private void handleMovieBatch(List<Content> batch) {
+        MAPPED_DATA.getReleaseDates().addAll(batch);
+        if (moviesRadioButton.isSelected() && !isFiltered()) {
+            tableView.getItems().addAll(batch);
+        }
+    }
+
+    /**
+     * Handles a batch of tv-shows streamed while scraping, by adding them to the release date index and to the
+     * TableView if tv-shows are displayed without a filter or search.
+     * @param batch Tv-shows scraped since the last batch.
+     */
+    private void handleTvShowBatch(List<Content> batch) {
+        MAPPED_DATA.getReleaseDates().addAll(batch);
+        if (tvShowsRadioButton.isSelected() && !isFiltered()) {
+            tableView.getItems().addAll(batch);
+        }
+    }
+
+    /**
+     * Handles the result of a finished movie scrape. The TableView is only populated if it doesn't already hold the
+     * streamed movies, and if no filter or search is active, in which case it is populated once the movies are mapped.
+     * @param data All scraped movies.
+     */
+    private void handleScrapedMovies(List<Content> data) {
+        moviesObsList = createObservableArrayList(data);
+        if (moviesRadioButton.isSelected() && !isFiltered() && !tableView.getItems().equals(data)) {
+            populateTableView(moviesObsList);
+        }
+        favorites.reattach(data);
+        setRefreshBaseline("Movie", data);
+        startMovieGenreMappingTask(data);
+        startEnrichment(data);
+        finishLoading();
+    }
+
+    /**
+     * Handles the result of a finished tv-show scrape. The TableView is only populated if it doesn't already hold the
+     * streamed tv-shows, and if no filter or search is active, in which case it is populated once the tv-shows are
+     * mapped.
+     * @param data All scraped tv-shows.
+     */
+    private void handleScrapedTvShows(List<Content> data) {
+        tvShowObsList = createObservableArrayList(data);
+        if (tvShowsRadioButton.isSelected() && !isFiltered() && !tableView.getItems().equals(data)) {
+            populateTableView(tvShowObsList);
+        }
+        favorites.reattach(data);
+        setRefreshBaseline("Tv-show", data);
+        startTvShowGenreMappingTask(data);
+        startEnrichment(data);
+        finishLoading();
+    }
+
+    /**
+     * Marks the start of one or more scrapes and disables components until they are done.
+     * @param scrapes Number of scrapes being started.
+     */
+    private void startLoading(int scrapes) {
+        pendingScrapes += scrapes;
         loading = true;
         handleComponentsDuringContentLoading();
-        new WebScraper().scrapeTvShowsAsync(data -> {
-            tvShowObsList = createObservableArrayList(data);
-            populateTableView(tvShowObsList);
+    }
+
+    /**
+     * Marks one scrape as done and enables components again once all scrapes are done.
+     */
+    private void finishLoading() {
+        pendingScrapes--;
+        if (pendingScrapes <= 0) {
+            pendingScrapes = 0;
             loading = false;
             handleComponentsDuringContentLoading();
-            startTvShowGenreMappingTask(data);
-        }, progressBar);
+        }
+    }
+
+    /**
+     * Follows started scrapes: binds the progress bar to their combined progress, and marks a scrape as done if it fails
+     * or is cancelled, since only a scrape that succeeds calls its callback. Without this, components would stay
+     * disabled for good after a failed scrape.
+     * @param scrapes Scrapes that have been started with {@link #startLoading}.
+     */
+    @SafeVarargs
+    private void trackScrapes(Worker<List<Content>>... scrapes) {
+        bindProgress(scrapes);
+        for (Worker<List<Content>> scrape : scrapes) {
+            //A scrape that was rejected by the executor has already been cancelled
+            if (scrape.getState() == Worker.State.CANCELLED || scrape.getState() == Worker.State.FAILED) {
+                finishStoppedScrape(scrape);
+                continue;
+            }
+            scrape.stateProperty().addListener((observable, oldState, newState) -> {
+                if (newState == Worker.State.CANCELLED || newState == Worker.State.FAILED) {
+                    finishStoppedScrape(scrape);
+                }
+            });
+        }
+    }
+
+    /**
+     * Marks a scrape that failed or was cancelled as done.
+     * @param scrape The scrape.
+     */
+    private void finishStoppedScrape(Worker<List<Content>> scrape) {
+        if (scrape.getState() == Worker.State.FAILED) {
+            System.out.println("Scrape failed: " + scrape.getException());
+        }
+        finishLoading();
+    }
+
+    /**
+     * Binds the progress bar to the combined progress of the given scrapes.
+     * @param scrapes Scrapes whose progress should be displayed.
+     */
+    @SafeVarargs
+    private void bindProgress(Worker<List<Content>>... scrapes) {
+        Observable[] dependencies = new Observable[scrapes.length];
+        for (int i = 0; i < scrapes.length; i++) {
+            dependencies[i] = scrapes[i].progressProperty();
+        }
+        progressBar.progressProperty().bind(Bindings.createDoubleBinding(() -> {
+            double total = 0;
+            for (Worker<List<Content>> scrape : scrapes) {
+                total += Math.max(0, scrape.getProgress());
+            }
+            return total / scrapes.length;
+        }, dependencies));
     }
 
     /**
@@ -378,32 +775,53 @@ public class WebScraperGUI extends Application {
             moviesRadioButton.setDisable(true);
             tvShowsRadioButton.setDisable(true);
             filterButton.setDisable(true);
+            refreshButton.setDisable(true);
         } else {
             moviesRadioButton.setDisable(false);
             tvShowsRadioButton.setDisable(false);
             filterButton.setDisable(false);
+            refreshButton.setDisable(false);
             progressBar.setVisible(false);
         }
     }
 
     /**
-     * Initiates asynchronous mapping of movies by genre
+     * Initiates asynchronous mapping of movies by genre. Once mapped, an active filter or search is applied again to the
+     * new movies.
      * @param data Takes a list of all Content.
      */
     private void startMovieGenreMappingTask(List<Content> data) {
         MAPPED_DATA.mapMovieGenresAsync(() -> {
+            if (moviesRadioButton.isSelected() && isFiltered()) {
+                displayFiltered();
+            }
         }, data);
     }
 
     /**
-     * Initiates asynchronous mapping of tv-shows by genre
+     * Initiates asynchronous mapping of tv-shows by genre. Once mapped, an active filter or search is applied again to
+     * the new tv-shows.
      * @param data Takes a list of all Content.
      */
     private void startTvShowGenreMappingTask(List<Content> data) {
         MAPPED_DATA.mapTvShowGenresAsync(() -> {
+            if (tvShowsRadioButton.isSelected() && isFiltered()) {
+                displayFiltered();
+            }
         }, data);
     }
 
+    /**
+     * Initiates enrichment of Content with the details of its IMDB page, if enrichment is turned on. The details are
+     * filled into the TableView as they arrive.
+     * @param data Content to be enriched.
+     */
+    private void startEnrichment(List<Content> data) {
+        if (detailEnricher != null) {
+            detailEnricher.enrich(data);
+        }
+    }
+
     /**
      * Method that sends user to the Contents imdb-page using their default browser
      */
@@ -462,9 +880,20 @@ public class WebScraperGUI extends Application {
 
         //Top right-side setup
         HBox rightSideButtonsHbox = new HBox(5);
+        searchField = new TextField();
+        searchField.setPromptText("Search titles and cast");
+        searchField.setPrefHeight(BUTTON_HEIGHT);
+        searchField.setPrefWidth(200);
+        calendarButton = new Button("Calendar");
+        calendarButton.setPrefHeight(BUTTON_HEIGHT);
         refreshButton = new Button("Refresh");
         refreshButton.setPrefHeight(BUTTON_HEIGHT);
-        rightSideButtonsHbox.getChildren().add(refreshButton);
+        changesButton = new Button();
+        changesButton.setPrefHeight(BUTTON_HEIGHT);
+        changesButton.setStyle("-fx-background-color: #c01c28; -fx-text-fill: white; -fx-background-radius: 15;");
+        changesButton.setVisible(false);
+        changesButton.setManaged(false);
+        rightSideButtonsHbox.getChildren().addAll(searchField, calendarButton, refreshButton, changesButton);
         rightSideButtonsHbox.setPadding(new Insets(10));
 
         //Top setup
@@ -498,27 +927,69 @@ public class WebScraperGUI extends Application {
     }
 
     /**
-     * Method sets up a TableView and connects columns to relevant attributes.
+     * Method sets up a TableView and connects columns to relevant attributes. The cell value factories read the
+     * attributes directly instead of looking them up by reflection.
      */
     private void setupTableView() {
         tableView = new TableView<>();
 
         posterColumn = new TableColumn<>("Poster");
         posterColumn.setSortable(false);
-        posterColumn.setCellValueFactory(cellData -> new SimpleObjectProperty<>(cellData.getValue().getPoster()));
+        posterColumn.setCellValueFactory(cellData -> new SimpleObjectProperty<>(cellData.getValue().getPosterUrl()));
         posterColumn.setCellFactory(column -> new PosterTableCell());
         TableColumn<Content, String> titleColumn = new TableColumn<>("Title");
-        titleColumn.setCellValueFactory(new PropertyValueFactory<>("title"));
-        TableColumn<Content, String[]> genresColumn = new TableColumn<>("Genres");
-        genresColumn.setCellValueFactory(new PropertyValueFactory<>("genres"));
+        titleColumn.setCellValueFactory(cellData -> new SimpleObjectProperty<>(cellData.getValue().title()));
+        TableColumn<Content, String> genresColumn = new TableColumn<>("Genres");
+        genresColumn.setCellValueFactory(cellData -> new SimpleObjectProperty<>(cellData.getValue().getGenres()));
         genresColumn.setSortable(false);
-        TableColumn<Content, String[]> topCastColumn = new TableColumn<>("Top Cast");
-        topCastColumn.setCellValueFactory(new PropertyValueFactory<>("topCast"));
+        TableColumn<Content, String> topCastColumn = new TableColumn<>("Top Cast");
+        topCastColumn.setCellValueFactory(cellData -> new SimpleObjectProperty<>(cellData.getValue().getTopCast()));
         topCastColumn.setSortable(false);
         TableColumn<Content, LocalDate> releaseDateColumn = new TableColumn<>("Release Date");
-        releaseDateColumn.setCellValueFactory(new PropertyValueFactory<>("releaseDate"));
+        releaseDateColumn.setCellValueFactory(cellData -> new SimpleObjectProperty<>(cellData.getValue().releaseDate()));
 
-        List<TableColumn<Content, ?>> columns = Arrays.asList(posterColumn, titleColumn, genresColumn, topCastColumn, releaseDateColumn);
+        List<TableColumn<Content, ?>> columns = new ArrayList<>(Arrays.asList(posterColumn, titleColumn, genresColumn, topCastColumn, releaseDateColumn));
+        if (Settings.getList(Settings.MOVIE_REGIONS, "").size() > 1 || Settings.getList(Settings.TV_SHOW_REGIONS, "").size() > 1) {
+            TableColumn<Content, String> regionalReleaseDatesColumn = new TableColumn<>("Regional Release Dates");
+            regionalReleaseDatesColumn.setCellValueFactory(cellData -> new SimpleObjectProperty<>(cellData.getValue().getRegionalReleaseDates()));
+            regionalReleaseDatesColumn.setSortable(false);
+            columns.add(regionalReleaseDatesColumn);
+        }
+        if (Settings.getBoolean(Settings.ENRICHMENT_ENABLED, false)) {
+            //Details are looked up when a cell is shown, so they appear as soon as the TableView is refreshed
+            TableColumn<Content, String> runtimeColumn = new TableColumn<>("Runtime");
+            runtimeColumn.setCellValueFactory(cellData -> {
+                ContentDetails details = DetailStore.shared().get(cellData.getValue().imdbUrl());
+                return new SimpleObjectProperty<>(details == null ? "" : details.runtime());
+            });
+            runtimeColumn.setSortable(false);
+            TableColumn<Content, String> directorsColumn = new TableColumn<>("Directors");
+            directorsColumn.setCellValueFactory(cellData -> {
+                ContentDetails details = DetailStore.shared().get(cellData.getValue().imdbUrl());
+                return new SimpleObjectProperty<>(details == null ? "" : details.getDirectors());
+            });
+            directorsColumn.setSortable(false);
+            TableColumn<Content, String> plotColumn = new TableColumn<>("Plot");
+            plotColumn.setCellValueFactory(cellData -> {
+                ContentDetails details = DetailStore.shared().get(cellData.getValue().imdbUrl());
+                return new SimpleObjectProperty<>(details == null ? "" : details.plot());
+            });
+            plotColumn.setCellFactory(column -> new TooltipTableCell());
+            plotColumn.setPrefWidth(260);
+            plotColumn.setSortable(false);
+            TableColumn<Content, String> fullCastColumn = new TableColumn<>("Full Cast");
+            fullCastColumn.setCellValueFactory(cellData -> {
+                ContentDetails details = DetailStore.shared().get(cellData.getValue().imdbUrl());
+                return new SimpleObjectProperty<>(details == null ? "" : details.getFullCast());
+            });
+            fullCastColumn.setCellFactory(column -> new TooltipTableCell());
+            fullCastColumn.setPrefWidth(200);
+            fullCastColumn.setSortable(false);
+            columns.add(columns.indexOf(releaseDateColumn), runtimeColumn);
+            columns.add(columns.indexOf(releaseDateColumn), directorsColumn);
+            columns.add(columns.indexOf(releaseDateColumn), plotColumn);
+            columns.add(columns.indexOf(releaseDateColumn), fullCastColumn);
+        }
         tableView.getColumns().addAll(columns);
     }
 
@@ -527,23 +998,25 @@ public class WebScraperGUI extends Application {
      */
     private void setupListeners() {
         moviesRadioButton.setOnAction(e -> {
+            removeFiltering();
             if (moviesObsList == null) {
                 loadMovies();
             } else {
-                populateTableView(moviesObsList);
+                displayFiltered();
             }
-            removeFiltering();
         });
 
         tvShowsRadioButton.setOnAction(e -> {
+            removeFiltering();
             if (tvShowObsList == null) {
                 loadTvShows();
             } else {
-                populateTableView(tvShowObsList);
+                displayFiltered();
             }
-            removeFiltering();
         });
 
+        searchField.textProperty().addListener((observable, oldText, newText) -> displayFiltered());
+
         filterButton.setOnAction(e -> filtersPopup());
         favoriteButton.setOnAction(e -> addFavorite());
         removeButton.setOnAction(e -> removeFavorite());
@@ -554,6 +1027,8 @@ public class WebScraperGUI extends Application {
             showPopupWebView(selectedItem);
         });
         refreshButton.setOnAction(e -> refreshData());
+        changesButton.setOnAction(e -> showChangesPopup());
+        calendarButton.setOnAction(e -> new CalendarView(MAPPED_DATA.getReleaseDates(), this::showPopupWebView).show());
     }
 
 }